@@ -1,5 +1,8 @@
 package com.java.api.apache.commons.collections;
 
+import com.java.api.apache.commons.collections.bag.ConcurrentCountingBag;
+import com.java.api.apache.commons.collections.bag.ConcurrentSortedBag;
+import com.java.api.apache.commons.collections.bag.ObjectIntBag;
 import org.apache.commons.collections.Bag;
 import org.apache.commons.collections.BagUtils;
 import org.apache.commons.collections.bag.HashBag;
@@ -7,6 +10,8 @@ import org.apache.commons.collections.bag.TreeBag;
 import org.apache.commons.lang3.StringUtils;
 
 import java.util.Iterator;
+import java.util.function.ObjLongConsumer;
+import java.util.function.ToDoubleFunction;
 
 /**
  * TODO
@@ -22,6 +27,87 @@ public class BagDemo {
         BagDemo demo = new BagDemo();
         demo.typedBag();
         demo.typedSortedBag();
+        demo.countingBag();
+        demo.concurrentCountingBag();
+        demo.concurrentSortedBag();
+    }
+
+    /**
+     * ConcurrentSortedBag:
+     *      sorted by price, safe for concurrent add/remove, range sums per price level
+     */
+    void concurrentSortedBag() {
+        System.out.println(StringUtils.center("concurrent sorted bag", 50, "="));
+        ConcurrentSortedBag<Book> bookBag = new ConcurrentSortedBag<>(new ToDoubleFunction<Book>() {
+            @Override
+            public double applyAsDouble(Book book) {
+                return book.getPrice();
+            }
+        });
+        Book[] books = Book.getBooks();
+        for (int i=0; i<books.length; i++) {
+            bookBag.add(books[i], 10*(i+1));
+        }
+        System.out.println("***total value: " + bookBag.rangeValue(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY));
+        System.out.println("***total value of price 10..100: " + bookBag.rangeValue(10, 100));
+        bookBag.forEach(new ObjLongConsumer<Book>() {
+            @Override
+            public void accept(Book book, long count) {
+                System.out.println(count + ": " + book);
+            }
+        });
+    }
+
+    /**
+     * ObjectIntBag:
+     *      same counting as typedBag, but on an open-addressing map with primitive int counts
+     *      (no MutableInteger per element, no instanceof check per add)
+     */
+    void countingBag() {
+        System.out.println(StringUtils.center("counting bag", 50, "="));
+        ObjectIntBag<Book> bookBag = new ObjectIntBag<>();
+        Book[] books = Book.getBooks();
+        for (int i=0; i<books.length; i++) {
+            bookBag.add(books[i], 10*(i+1));
+        }
+        float totalVal = 0;
+        for(Book bk : books) {
+            totalVal += bk.getPrice()*bookBag.getCount(bk);
+        }
+        System.out.println("***total value: " + totalVal);
+        bookBag.remove(books[0], 5);
+        System.out.println("***bk1 after removing 5: " + bookBag.getCount(books[0]) + ", total: " + bookBag.totalSize());
+        System.out.println(bookBag);
+    }
+
+    /**
+     * ConcurrentCountingBag:
+     *      LongAdder per element, for counting from many threads
+     */
+    void concurrentCountingBag() {
+        System.out.println(StringUtils.center("concurrent counting bag", 50, "="));
+        final ConcurrentCountingBag<Book> bookBag = new ConcurrentCountingBag<>();
+        final Book[] books = Book.getBooks();
+        Thread[] workers = new Thread[4];
+        for (int t=0; t<workers.length; t++) {
+            workers[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i=0; i<books.length; i++) {
+                        bookBag.add(books[i], 10*(i+1));
+                    }
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        System.out.println("***counts: " + bookBag.snapshot());
     }
 
     void unmodifiedSortedBag() {
@@ -1,7 +1,6 @@
 package com.java.api.apache.commons.collections;
 
 import lombok.Data;
-import org.apache.commons.lang3.builder.CompareToBuilder;
 
 /**
  * Created by kevintian on 2017/9/26.
@@ -25,9 +24,12 @@ public class Book implements Comparable<Book>{
         this.price = price;
     }
 
+    /**
+     * order by price; a plain float compare, no reflection(this runs on every TreeBag operation)
+     */
     @Override
     public int compareTo(Book o) {
-        return CompareToBuilder.reflectionCompare(price, o.getPrice());
+        return Float.compare(price, o.getPrice());
     }
 
     /**
@@ -1,5 +1,7 @@
 package com.java.api.apache.commons.collections;
 
+import com.java.api.apache.commons.collections.buffer.MpmcRingBuffer;
+import com.java.api.apache.commons.collections.buffer.RingBuffer;
 import org.apache.commons.collections.Buffer;
 import org.apache.commons.collections.BufferUtils;
 import org.apache.commons.collections.buffer.BoundedFifoBuffer;
@@ -22,6 +24,7 @@ public class BufferDemo {
     public static void main(String[] args) {
         BufferDemo demo = new BufferDemo();
         demo.boundedBuffer();
+        demo.ringBuffer();
     }
 
     /**
@@ -49,4 +52,25 @@ public class BufferDemo {
             System.out.println(bookFifoBf.remove());
         }
     }
+
+    /**
+     * the same "keep the latest 2" queue as boundedBuffer() on a lock-free ring buffer
+     * <p>
+     * NOTE:
+     * 1. overwrite mode: a full buffer drops its oldest element by itself, the status code tells it happened; no
+     * exception on the hot path, no remove-and-retry by the caller
+     * 2. safe for concurrent producers/consumers without synchronized(BufferUtils.synchronizedBuffer)
+     * 3. the element type is a compile-time generic instead of TypedBuffer's per-add check
+     */
+    void ringBuffer() {
+        RingBuffer<Book> bookRing = new MpmcRingBuffer<>(2, true);
+        for (Book bk : Book.getBooks()) {
+            int status = bookRing.offer(bk);
+            System.out.println((status == RingBuffer.OVERWRITTEN ? "overwrite oldest and add" : "add") + bk);
+        }
+        Book bk;
+        while ((bk = bookRing.poll()) != null) {
+            System.out.println(bk);
+        }
+    }
 }
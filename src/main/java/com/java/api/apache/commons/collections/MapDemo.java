@@ -1,15 +1,25 @@
 package com.java.api.apache.commons.collections;
 
+import com.java.api.apache.commons.collections.bidimap.ConcurrentBidiMap;
+import com.java.api.apache.commons.collections.map.CompactMultiMap;
+import com.java.api.apache.commons.collections.map.ConcurrentLazyMap;
+import com.java.api.apache.commons.collections.map.FrozenMultiMap;
 import org.apache.commons.collections.*;
 import org.apache.commons.collections.bidimap.DualHashBidiMap;
 import org.apache.commons.collections.map.LazyMap;
 import org.apache.commons.collections.map.MultiValueMap;
 import org.apache.commons.lang3.StringUtils;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 
 /**
  * 场景
@@ -25,8 +35,11 @@ public class MapDemo {
         Book[] books = Book.getBooks();
         MapDemo demo = new MapDemo();
         demo.bidiMap(books);
+        demo.concurrentBidiMap(books);
         demo.multiMap(books);
+        demo.compactMultiMap(books);
         demo.lazyMap(books);
+        demo.concurrentLazyMap(books);
     }
 
     /**
@@ -51,6 +64,31 @@ public class MapDemo {
         }
     }
 
+    /**
+     * NOTE:
+     * 1. shared by threads without BidiMap's synchronized wrapper: reads are lock-free in both directions
+     * 2. each pair is stored once, both directions are int index tables over it
+     */
+    void concurrentBidiMap(Book[] books) {
+        System.out.println(StringUtils.center("concurrent bidi map", 50, "="));
+        // build map with a single snapshot copy
+        Map<String, Book> byName = new HashMap<>();
+        for (Book bk : books) {
+            byName.put(bk.getName(), bk);
+        }
+        ConcurrentBidiMap<String, Book> map = new ConcurrentBidiMap<>();
+        map.putAll(byName);
+        // get name, object for books[0]
+        System.out.println(map.getKey(books[0]) + ":" + map.get(books[0].getName()));
+        // iterate over map
+        map.forEach(new BiConsumer<String, Book>() {
+            @Override
+            public void accept(String name, Book bk) {
+                System.out.println("***" + name + ": " + bk);
+            }
+        });
+    }
+
     /**
      * NOTE:
      * 1. factory: 每次get,如果key对应的值不存在则调用factory方法生成一个值返回,并把这个值塞入map
@@ -99,6 +137,42 @@ public class MapDemo {
         }
     }
 
+    /**
+     * NOTE:
+     * 1. concurrent gets of a missing key call the loader once, the other threads wait for its result
+     * 2. the books are indexed by name once, a miss is a hash lookup instead of a scan over 'books'
+     * 3. at most maxSize entries are kept, prefetch(...) loads many keys in one go
+     */
+    void concurrentLazyMap(Book[] books) throws Exception {
+        System.out.println(StringUtils.center("concurrent lazy map", 50, "="));
+        final Map<String, Book> byName = new HashMap<>();
+        for (Book bk : books) {
+            byName.put(bk.getName(), bk);
+        }
+        final AtomicInteger loads = new AtomicInteger();
+        final ConcurrentLazyMap<String, Book> map = new ConcurrentLazyMap<>(new Function<String, Book>() {
+            @Override
+            public Book apply(String bookName) {
+                loads.incrementAndGet();
+                return byName.get(bookName);
+            }
+        }, 100);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        for (int i = 0; i < 8; i++) {
+            pool.execute(new Runnable() {
+                @Override
+                public void run() {
+                    map.get("book1");
+                }
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(10, TimeUnit.SECONDS);
+        System.out.println(map.get("book1") + ", loads: " + loads.get());
+        map.prefetch(Arrays.asList("book1", "book2", "book3", "book")).join();
+        System.out.println(map.get("book") + ", map size: " + map.size() + ", loads: " + loads.get());
+    }
+
     /**
      * NTOE: ...
      */
@@ -118,4 +192,27 @@ public class MapDemo {
             System.out.println("***" + key + ": " + map.get(key));
         }
     }
+
+    /**
+     * NOTE:
+     * 1. 1 value per key is stored as is, a few in a small array, only many in a list
+     * 2. get(key) is a read-only view; freeze() packs the map into flat arrays for read-only lookups
+     */
+    void compactMultiMap(Book[] books) {
+        System.out.println(StringUtils.center("compact multi map", 50, "="));
+        // build map
+        CompactMultiMap<String, Book> map = new CompactMultiMap<>(books.length);
+        for (Book bk : books) {
+            map.put(bk.getName(), bk);
+            map.put(bk.getName(), bk);
+            map.put(bk.getName(), bk);
+        }
+        // get books[0] by name
+        System.out.println(books[0].getName() + ": " + map.get(books[0].getName()));
+        // iterate over the frozen form
+        FrozenMultiMap<String, Book> frozen = map.freeze();
+        for (String key : map.keySet()) {
+            System.out.println("***" + key + ": " + frozen.get(key));
+        }
+    }
 }
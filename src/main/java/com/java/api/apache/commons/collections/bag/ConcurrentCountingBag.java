@@ -0,0 +1,83 @@
+package com.java.api.apache.commons.collections.bag;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * thread-safe counting bag for write-heavy workloads
+ * <p>
+ * NOTE:
+ * 1. one LongAdder per element: increments of a hot element are spread over striped cells instead of contending
+ * on one CAS, so concurrent add(...) scales with the number of cores
+ * 2. add(...) on a known element is a lock-free map read + an adder increment, no allocation
+ * 3. getCount(...) sums the cells: exact when no add is in flight, a moving snapshot otherwise
+ * 4. elements are never removed implicitly, counts may be decremented with a negative n
+ *
+ * @param <E> element type, null is not allowed
+ */
+public class ConcurrentCountingBag<E> {
+    private final ConcurrentHashMap<E, LongAdder> counters;
+
+    public ConcurrentCountingBag() {
+        this(16);
+    }
+
+    public ConcurrentCountingBag(int expectedSize) {
+        counters = new ConcurrentHashMap<>(expectedSize);
+    }
+
+    public void add(E e) {
+        counter(e).increment();
+    }
+
+    /**
+     * @param n may be negative
+     */
+    public void add(E e, long n) {
+        counter(e).add(n);
+    }
+
+    private LongAdder counter(E e) {
+        LongAdder counter = counters.get(e);
+        if (counter == null) {
+            counter = counters.computeIfAbsent(e, new Function<E, LongAdder>() {
+                @Override
+                public LongAdder apply(E key) {
+                    return new LongAdder();
+                }
+            });
+        }
+        return counter;
+    }
+
+    public long getCount(Object o) {
+        LongAdder counter = counters.get(o);
+        return counter == null ? 0 : counter.sum();
+    }
+
+    public int uniqueSize() {
+        return counters.size();
+    }
+
+    /**
+     * copy into a single-threaded bag, e.g. for reporting; elements with a count <= 0 are skipped
+     *
+     * @throws ArithmeticException a count exceeds Integer.MAX_VALUE
+     */
+    public ObjectIntBag<E> snapshot() {
+        ObjectIntBag<E> bag = new ObjectIntBag<>(counters.size());
+        for (Map.Entry<E, LongAdder> entry : counters.entrySet()) {
+            long count = entry.getValue().sum();
+            if (count > 0) {
+                bag.add(entry.getKey(), Math.toIntExact(count));
+            }
+        }
+        return bag;
+    }
+
+    public void clear() {
+        counters.clear();
+    }
+}
@@ -0,0 +1,209 @@
+package com.java.api.apache.commons.collections.bag;
+
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.ObjLongConsumer;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * thread-safe counting bag sorted by a numeric key(e.g. Book price), like an order book
+ * <p>
+ * STRUCTURE:
+ * price level(ConcurrentSkipListMap, lock-free, ordered by Double.compare)
+ * -> elements at that price(ConcurrentHashMap) -> count(LongAdder)
+ * every level also keeps its total count, so range queries touch levels, not elements:
+ * rangeCount/rangeValue(lo, hi) = sum over the levels in [lo, hi].
+ * <p>
+ * NOTE:
+ * 1. add/remove on different price levels never contend; on the same level they hit striped adders
+ * 2. the price is boxed only when an element is added for the first time: a per-element handle(level + counter)
+ * serves later add/remove/getCount without touching the skip list
+ * 3. range results are a moving snapshot while writers are active, exact when they are quiet
+ * 4. levels whose count drops to 0 stay in the map(an order book refills them); purge() drops them when writers
+ * are quiet
+ *
+ * @param <E> element type, null is not allowed
+ */
+public class ConcurrentSortedBag<E> {
+    private final ToDoubleFunction<? super E> keyFunction;
+    private final ConcurrentSkipListMap<Double, Level<E>> levels = new ConcurrentSkipListMap<>();
+    private final ConcurrentHashMap<E, Handle<E>> handles = new ConcurrentHashMap<>();
+
+    /**
+     * @param keyFunction sort key of an element, must not change while the element is in the bag
+     */
+    public ConcurrentSortedBag(ToDoubleFunction<? super E> keyFunction) {
+        this.keyFunction = keyFunction;
+    }
+
+    public void add(E e, long n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("negative count: " + n);
+        }
+        handle(e).add(n);
+    }
+
+    /**
+     * remove up to n copies
+     *
+     * @return number of copies removed
+     */
+    public long remove(E e, long n) {
+        Handle<E> handle = handles.get(e);
+        return handle == null ? 0 : handle.remove(n);
+    }
+
+    public long getCount(E e) {
+        Handle<E> handle = handles.get(e);
+        return handle == null ? 0 : handle.counter.sum();
+    }
+
+    /**
+     * number of copies with lo <= key <= hi
+     */
+    public long rangeCount(double lo, double hi) {
+        long count = 0;
+        for (Level<E> level : levels.subMap(lo, true, hi, true).values()) {
+            count += level.total.sum();
+        }
+        return count;
+    }
+
+    /**
+     * sum of key * count with lo <= key <= hi, e.g. total value of the books priced 10..100
+     */
+    public double rangeValue(double lo, double hi) {
+        double value = 0;
+        for (Map.Entry<Double, Level<E>> entry : levels.subMap(lo, true, hi, true).entrySet()) {
+            value += entry.getKey() * entry.getValue().total.sum();
+        }
+        return value;
+    }
+
+    /**
+     * @return lowest key with a positive count, NaN if empty
+     */
+    public double firstKey() {
+        for (Map.Entry<Double, Level<E>> entry : levels.entrySet()) {
+            if (entry.getValue().total.sum() > 0) {
+                return entry.getKey();
+            }
+        }
+        return Double.NaN;
+    }
+
+    /**
+     * visit elements in ascending key order, with their counts(elements of one level in no particular order)
+     */
+    public void forEach(ObjLongConsumer<? super E> action) {
+        forEach(levels, action);
+    }
+
+    public void forEachDescending(ObjLongConsumer<? super E> action) {
+        forEach(levels.descendingMap(), action);
+    }
+
+    private static <E> void forEach(NavigableMap<Double, Level<E>> map, ObjLongConsumer<? super E> action) {
+        for (Level<E> level : map.values()) {
+            for (Map.Entry<E, LongAdder> entry : level.counts.entrySet()) {
+                long count = entry.getValue().sum();
+                if (count > 0) {
+                    action.accept(entry.getKey(), count);
+                }
+            }
+        }
+    }
+
+    /**
+     * drop empty levels; call it when no writer is active, a concurrent add to a purged level would be lost
+     */
+    public void purge() {
+        for (Map.Entry<Double, Level<E>> entry : levels.entrySet()) {
+            Level<E> level = entry.getValue();
+            if (level.total.sum() <= 0 && levels.remove(entry.getKey(), level)) {
+                for (E e : level.counts.keySet()) {
+                    handles.remove(e);
+                }
+            }
+        }
+    }
+
+    private Handle<E> handle(E e) {
+        Handle<E> handle = handles.get(e);
+        if (handle == null) {
+            Level<E> level = level(keyFunction.applyAsDouble(e));
+            Handle<E> created = new Handle<>(level, level.counter(e));
+            handle = handles.putIfAbsent(e, created);
+            if (handle == null) {
+                handle = created;
+            }
+        }
+        return handle;
+    }
+
+    private Level<E> level(double key) {
+        Level<E> level = levels.get(key);
+        if (level == null) {
+            Level<E> created = new Level<>();
+            level = levels.putIfAbsent(key, created);
+            if (level == null) {
+                level = created;
+            }
+        }
+        return level;
+    }
+
+    private static final class Level<E> {
+        final ConcurrentMap<E, LongAdder> counts = new ConcurrentHashMap<>(4);
+        final LongAdder total = new LongAdder();
+
+        LongAdder counter(E e) {
+            LongAdder counter = counts.get(e);
+            if (counter == null) {
+                counter = counts.computeIfAbsent(e, new Function<E, LongAdder>() {
+                    @Override
+                    public LongAdder apply(E key) {
+                        return new LongAdder();
+                    }
+                });
+            }
+            return counter;
+        }
+    }
+
+    /**
+     * level and counter of one element, resolved once
+     */
+    private static final class Handle<E> {
+        final Level<E> level;
+        final LongAdder counter;
+
+        Handle(Level<E> level, LongAdder counter) {
+            this.level = level;
+            this.counter = counter;
+        }
+
+        void add(long n) {
+            counter.add(n);
+            level.total.add(n);
+        }
+
+        long remove(long n) {
+            // serialize removals of one element, so its count never goes negative; adds stay lock-free
+            synchronized (counter) {
+                long removed = Math.min(n, counter.sum());
+                if (removed <= 0) {
+                    return 0;
+                }
+                counter.add(-removed);
+                level.total.add(-removed);
+                return removed;
+            }
+        }
+    }
+}
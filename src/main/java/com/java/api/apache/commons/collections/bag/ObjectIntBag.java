@@ -0,0 +1,226 @@
+package com.java.api.apache.commons.collections.bag;
+
+import java.util.Arrays;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * counting bag on an open-addressing object->int map
+ * <p>
+ * vs HashBag:
+ * 1. HashBag = HashMap entry + boxed MutableInteger per key; here a key costs one Object[] slot + one int[] slot
+ * 2. add(obj, n) on an existing key allocates nothing
+ * 3. no type check per add: the type is a compile-time generic
+ * <p>
+ * NOTE:
+ * 1. linear probing, capacity is a power of two, resized at 1/2 load; removal shifts entries back(no tombstones)
+ * 2. counts are int, an add beyond Integer.MAX_VALUE throws ArithmeticException
+ * 3. not thread-safe, see ConcurrentCountingBag
+ *
+ * @param <E> element type, null is not allowed
+ */
+public class ObjectIntBag<E> {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private Object[] keys;
+    private int[] counts;
+    private int mask;
+    private int size;
+    private long totalSize;
+
+    public ObjectIntBag() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param expectedSize number of distinct elements, avoids rehashing while filling
+     */
+    public ObjectIntBag(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(expectedSize, 4) * 2 - 1) << 1;
+        keys = new Object[capacity];
+        counts = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    private static int hash(Object o) {
+        int h = o.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private int indexOf(Object o) {
+        int idx = hash(o) & mask;
+        Object k;
+        while ((k = keys[idx]) != null) {
+            if (k == o || k.equals(o)) {
+                return idx;
+            }
+            idx = (idx + 1) & mask;
+        }
+        return -1;
+    }
+
+    public boolean add(E e) {
+        add(e, 1);
+        return true;
+    }
+
+    /**
+     * @return the new count of e
+     */
+    public int add(E e, int n) {
+        if (e == null) {
+            throw new NullPointerException("null element");
+        }
+        if (n < 0) {
+            throw new IllegalArgumentException("negative count: " + n);
+        }
+        int idx = hash(e) & mask;
+        Object k;
+        while ((k = keys[idx]) != null) {
+            if (k == e || k.equals(e)) {
+                counts[idx] = Math.addExact(counts[idx], n);
+                totalSize += n;
+                return counts[idx];
+            }
+            idx = (idx + 1) & mask;
+        }
+        if (n == 0) {
+            return 0;
+        }
+        keys[idx] = e;
+        counts[idx] = n;
+        totalSize += n;
+        if (++size * 2 > keys.length) {
+            resize(keys.length * 2);
+        }
+        return n;
+    }
+
+    public int getCount(Object o) {
+        if (o == null) {
+            return 0;
+        }
+        int idx = indexOf(o);
+        return idx < 0 ? 0 : counts[idx];
+    }
+
+    public boolean contains(Object o) {
+        return o != null && indexOf(o) >= 0;
+    }
+
+    /**
+     * remove n copies, the element is dropped when its count reaches 0
+     *
+     * @return the new count of o
+     */
+    public int remove(Object o, int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("negative count: " + n);
+        }
+        if (o == null) {
+            return 0;
+        }
+        int idx = indexOf(o);
+        if (idx < 0) {
+            return 0;
+        }
+        int removed = Math.min(n, counts[idx]);
+        totalSize -= removed;
+        counts[idx] -= removed;
+        if (counts[idx] > 0) {
+            return counts[idx];
+        }
+        delete(idx);
+        return 0;
+    }
+
+    /**
+     * backward-shift deletion: move later entries of the probe chain into the gap
+     */
+    private void delete(int gap) {
+        size--;
+        int idx = gap;
+        while (true) {
+            idx = (idx + 1) & mask;
+            Object k = keys[idx];
+            if (k == null) {
+                break;
+            }
+            int home = hash(k) & mask;
+            // k can fill the gap if its home slot is not within (gap, idx]
+            if (((idx - home) & mask) >= ((idx - gap) & mask)) {
+                keys[gap] = k;
+                counts[gap] = counts[idx];
+                gap = idx;
+            }
+        }
+        keys[gap] = null;
+        counts[gap] = 0;
+    }
+
+    private void resize(int capacity) {
+        Object[] oldKeys = keys;
+        int[] oldCounts = counts;
+        keys = new Object[capacity];
+        counts = new int[capacity];
+        mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            Object k = oldKeys[i];
+            if (k != null) {
+                int idx = hash(k) & mask;
+                while (keys[idx] != null) {
+                    idx = (idx + 1) & mask;
+                }
+                keys[idx] = k;
+                counts[idx] = oldCounts[i];
+            }
+        }
+    }
+
+    /**
+     * number of distinct elements
+     */
+    public int uniqueSize() {
+        return size;
+    }
+
+    /**
+     * sum of all counts
+     */
+    public long totalSize() {
+        return totalSize;
+    }
+
+    /**
+     * visit (element, count) pairs without creating entries
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(ObjIntConsumer<? super E> action) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                action.accept((E) keys[i], counts[i]);
+            }
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(keys, null);
+        Arrays.fill(counts, 0);
+        size = 0;
+        totalSize = 0;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("[");
+        forEach(new ObjIntConsumer<E>() {
+            @Override
+            public void accept(E e, int count) {
+                if (sb.length() > 1) {
+                    sb.append(',');
+                }
+                sb.append(count).append(':').append(e);
+            }
+        });
+        return sb.append(']').toString();
+    }
+}
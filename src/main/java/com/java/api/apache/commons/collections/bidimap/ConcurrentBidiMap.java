@@ -0,0 +1,298 @@
+package com.java.api.apache.commons.collections.bidimap;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * thread-safe bidirectional map for read-mostly lookup tables(e.g. name <-> object) shared by request threads
+ * <p>
+ * STRUCTURE(one immutable snapshot behind a volatile reference):
+ * 1. keys[i], values[i]: every pair is stored ONCE, at the same index of two plain arrays
+ * 2. byKey, byValue: open-addressing int tables(linear probing, <= 1/2 load) holding pair index + 1, 0 is empty
+ * vs DualHashBidiMap: no second HashMap with its own Entry per pair, an index costs one int slot per direction.
+ * <p>
+ * NOTE:
+ * 1. get/getKey/containsXxx/forEach read the current snapshot: lock-free, no synchronized wrapper needed
+ * 2. writes are serialized and copy the snapshot(O(n)), so they suit tables that are built once and updated
+ * rarely; load them with putAll(...) to pay the copy once
+ * 3. like BidiMap, values are unique too: putting a value that is already mapped drops its old key
+ *
+ * @param <K> key type, null is not allowed
+ * @param <V> value type, null is not allowed
+ */
+public class ConcurrentBidiMap<K, V> {
+    private volatile Table table = Table.EMPTY;
+
+    public V get(Object key) {
+        Table t = table;
+        int idx = t.indexOfKey(key);
+        return idx < 0 ? null : t.<V>value(idx);
+    }
+
+    public K getKey(Object value) {
+        Table t = table;
+        int idx = t.indexOfValue(value);
+        return idx < 0 ? null : t.<K>key(idx);
+    }
+
+    public boolean containsKey(Object key) {
+        return table.indexOfKey(key) >= 0;
+    }
+
+    public boolean containsValue(Object value) {
+        return table.indexOfValue(value) >= 0;
+    }
+
+    public int size() {
+        return table.size;
+    }
+
+    /**
+     * @return the previous value of key
+     */
+    public synchronized V put(K key, V value) {
+        if (key == null || value == null) {
+            throw new NullPointerException("null key or value");
+        }
+        Table t = table;
+        int idx = t.indexOfKey(key);
+        V old = idx < 0 ? null : t.<V>value(idx);
+        table = t.with(key, value);
+        return old;
+    }
+
+    /**
+     * put all pairs with one copy of the snapshot; later pairs win on duplicate keys/values
+     */
+    public synchronized void putAll(Map<? extends K, ? extends V> map) {
+        Table t = table;
+        Object[] keys = Arrays.copyOf(t.keys, t.size + map.size());
+        Object[] values = Arrays.copyOf(t.values, t.size + map.size());
+        int size = t.size;
+        for (Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+            if (entry.getKey() == null || entry.getValue() == null) {
+                throw new NullPointerException("null key or value");
+            }
+            keys[size] = entry.getKey();
+            values[size] = entry.getValue();
+            size++;
+        }
+        // rebuilding from the appended arrays keeps the last occurrence of every key and value
+        table = Table.build(keys, values, size);
+    }
+
+    /**
+     * @return the removed value
+     */
+    public synchronized V removeKey(Object key) {
+        Table t = table;
+        int idx = t.indexOfKey(key);
+        if (idx < 0) {
+            return null;
+        }
+        table = t.without(idx);
+        return t.value(idx);
+    }
+
+    /**
+     * @return the removed key
+     */
+    public synchronized K removeValue(Object value) {
+        Table t = table;
+        int idx = t.indexOfValue(value);
+        if (idx < 0) {
+            return null;
+        }
+        table = t.without(idx);
+        return t.key(idx);
+    }
+
+    public synchronized void clear() {
+        table = Table.EMPTY;
+    }
+
+    /**
+     * visit the pairs of one snapshot, without creating entries
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        Table t = table;
+        for (int i = 0; i < t.size; i++) {
+            action.accept((K) t.keys[i], (V) t.values[i]);
+        }
+    }
+
+    @Override
+    public String toString() {
+        Table t = table;
+        StringBuilder sb = new StringBuilder("{");
+        for (int i = 0; i < t.size; i++) {
+            sb.append(i == 0 ? "" : ", ").append(t.keys[i]).append('=').append(t.values[i]);
+        }
+        return sb.append('}').toString();
+    }
+
+    private static final class Table {
+        static final Table EMPTY = new Table(new Object[0], new Object[0], 0, new int[2], new int[2]);
+
+        final Object[] keys;
+        final Object[] values;
+        final int size;
+        final int[] byKey;
+        final int[] byValue;
+        final int mask;
+
+        Table(Object[] keys, Object[] values, int size, int[] byKey, int[] byValue) {
+            this.keys = keys;
+            this.values = values;
+            this.size = size;
+            this.byKey = byKey;
+            this.byValue = byValue;
+            this.mask = byKey.length - 1;
+        }
+
+        /**
+         * index the first 'size' pairs; a later pair replaces an earlier one with the same key or value
+         */
+        static Table build(Object[] keys, Object[] values, int size) {
+            int capacity = Integer.highestOneBit(Math.max(size, 1) * 2 - 1) << 1;
+            int[] byKey = new int[capacity];
+            int[] byValue = new int[capacity];
+            int mask = capacity - 1;
+            Object[] ks = new Object[size];
+            Object[] vs = new Object[size];
+            int n = 0;
+            for (int i = 0; i < size; i++) {
+                int ki = find(byKey, mask, ks, keys[i]);
+                int vi = find(byValue, mask, vs, values[i]);
+                if (ki < 0 && vi < 0) {
+                    ks[n] = keys[i];
+                    vs[n] = values[i];
+                    n++;
+                    insert(byKey, mask, ks[n - 1], n);
+                    insert(byValue, mask, vs[n - 1], n);
+                } else {
+                    // rare: duplicates inside one batch, fall back to a compacting rebuild
+                    return rebuildDistinct(keys, values, size);
+                }
+            }
+            return new Table(ks, vs, n, byKey, byValue);
+        }
+
+        private static Table rebuildDistinct(Object[] keys, Object[] values, int size) {
+            // walk backwards so the last occurrence wins, then index the survivors in their original order
+            HashSet<Object> seenKeys = new HashSet<>();
+            HashSet<Object> seenValues = new HashSet<>();
+            boolean[] keep = new boolean[size];
+            int n = 0;
+            for (int i = size - 1; i >= 0; i--) {
+                if (seenKeys.add(keys[i]) & seenValues.add(values[i])) {
+                    keep[i] = true;
+                    n++;
+                }
+            }
+            Object[] ks = new Object[n];
+            Object[] vs = new Object[n];
+            int j = 0;
+            for (int i = 0; i < size; i++) {
+                if (keep[i]) {
+                    ks[j] = keys[i];
+                    vs[j] = values[i];
+                    j++;
+                }
+            }
+            return build(ks, vs, n);
+        }
+
+        Table with(Object key, Object value) {
+            int ki = indexOfKey(key);
+            int vi = indexOfValue(value);
+            Object[] ks;
+            Object[] vs;
+            int n;
+            if (ki >= 0) {
+                // replace the value in place, drop the pair that held the value before
+                ks = keys.clone();
+                vs = values.clone();
+                vs[ki] = value;
+                n = size;
+                if (vi >= 0 && vi != ki) {
+                    n = removeAt(ks, vs, n, vi);
+                }
+            } else {
+                ks = Arrays.copyOf(keys, size + 1);
+                vs = Arrays.copyOf(values, size + 1);
+                ks[size] = key;
+                vs[size] = value;
+                n = size + 1;
+                if (vi >= 0) {
+                    n = removeAt(ks, vs, n, vi);
+                }
+            }
+            return build(ks, vs, n);
+        }
+
+        Table without(int idx) {
+            Object[] ks = keys.clone();
+            Object[] vs = values.clone();
+            return build(ks, vs, removeAt(ks, vs, size, idx));
+        }
+
+        /**
+         * close the gap by shifting, keeps insertion order
+         */
+        private static int removeAt(Object[] ks, Object[] vs, int n, int idx) {
+            System.arraycopy(ks, idx + 1, ks, idx, n - idx - 1);
+            System.arraycopy(vs, idx + 1, vs, idx, n - idx - 1);
+            ks[n - 1] = null;
+            vs[n - 1] = null;
+            return n - 1;
+        }
+
+        int indexOfKey(Object key) {
+            return key == null ? -1 : find(byKey, mask, keys, key);
+        }
+
+        int indexOfValue(Object value) {
+            return value == null ? -1 : find(byValue, mask, values, value);
+        }
+
+        @SuppressWarnings("unchecked")
+        <T> T key(int idx) {
+            return (T) keys[idx];
+        }
+
+        @SuppressWarnings("unchecked")
+        <T> T value(int idx) {
+            return (T) values[idx];
+        }
+
+        private static int hash(Object o) {
+            int h = o.hashCode() * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+
+        private static int find(int[] index, int mask, Object[] items, Object o) {
+            int h = hash(o) & mask;
+            int slot;
+            while ((slot = index[h]) != 0) {
+                Object item = items[slot - 1];
+                if (item == o || item.equals(o)) {
+                    return slot - 1;
+                }
+                h = (h + 1) & mask;
+            }
+            return -1;
+        }
+
+        private static void insert(int[] index, int mask, Object o, int slot) {
+            int h = hash(o) & mask;
+            while (index[h] != 0) {
+                h = (h + 1) & mask;
+            }
+            index[h] = slot;
+        }
+    }
+}
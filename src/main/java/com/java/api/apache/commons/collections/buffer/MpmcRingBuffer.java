@@ -0,0 +1,117 @@
+package com.java.api.apache.commons.collections.buffer;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * lock-free bounded multi-producer/multi-consumer queue on an array(Dmitry Vyukov's bounded mpmc queue)
+ * <p>
+ * STRUCTURE:
+ * every slot has a sequence number besides the element; a producer at position p may fill slot p & mask only when
+ * its sequence is p, a consumer may drain it only when its sequence is p + 1. claiming a position is one CAS on
+ * the padded tail(producers) or head(consumers), publishing is an ordered store of the slot sequence.
+ * <p>
+ * NOTE:
+ * 1. capacity is rounded up to a power of two, so the slot index is a mask instead of a modulo
+ * 2. offer(...) returns FULL instead of throwing BufferOverflowException; poll() returns null when empty
+ * 3. overwrite mode: when full, offer(...) drops the oldest element(s) and returns OVERWRITTEN, e.g. a "latest N
+ * events" buffer that never blocks its producers
+ * 4. no allocation on offer/poll, no locks
+ *
+ * @param <E> element type, null is not allowed
+ */
+public class MpmcRingBuffer<E> implements RingBuffer<E> {
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final boolean overwrite;
+    private final Sequence head = new Sequence(0);
+    private final Sequence tail = new Sequence(0);
+
+    public MpmcRingBuffer(int capacity) {
+        this(capacity, false);
+    }
+
+    /**
+     * @param overwrite drop the oldest element instead of rejecting the new one when full
+     */
+    public MpmcRingBuffer(int capacity, boolean overwrite) {
+        if (capacity < 2 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("capacity out of [2, 2^30]: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        elements = new AtomicReferenceArray<>(size);
+        sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        mask = size - 1;
+        this.overwrite = overwrite;
+    }
+
+    @Override
+    public int offer(E e) {
+        if (e == null) {
+            throw new NullPointerException("null element");
+        }
+        int status = OK;
+        while (true) {
+            long pos = tail.get();
+            int idx = (int) pos & mask;
+            long diff = sequences.get(idx) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    elements.lazySet(idx, e);
+                    sequences.lazySet(idx, pos + 1);
+                    return status;
+                }
+            } else if (diff < 0) {
+                // the slot still holds the element of the previous lap: full
+                if (!overwrite) {
+                    return FULL;
+                }
+                // act as a consumer once, then retry; another consumer may have freed the slot meanwhile
+                if (poll() != null) {
+                    status = OVERWRITTEN;
+                }
+            }
+            // diff > 0: another producer claimed pos, re-read the tail
+        }
+    }
+
+    @Override
+    public E poll() {
+        while (true) {
+            long pos = head.get();
+            int idx = (int) pos & mask;
+            long diff = sequences.get(idx) - (pos + 1);
+            if (diff == 0) {
+                if (head.compareAndSet(pos, pos + 1)) {
+                    E e = elements.get(idx);
+                    elements.lazySet(idx, null);
+                    // free the slot for the producer of the next lap
+                    sequences.lazySet(idx, pos + mask + 1);
+                    return e;
+                }
+            } else if (diff < 0) {
+                // not yet published: empty
+                return null;
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        long size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(size, mask + 1));
+    }
+
+    @Override
+    public int capacity() {
+        return mask + 1;
+    }
+
+    public boolean isOverwrite() {
+        return overwrite;
+    }
+}
@@ -0,0 +1,42 @@
+package com.java.api.apache.commons.collections.buffer;
+
+/**
+ * bounded fifo queue that reports "full" by a status code instead of an exception
+ * <p>
+ * implementations:
+ * 1. SpscRingBuffer: one producer thread, one consumer thread
+ * 2. MpmcRingBuffer: any number of producers/consumers, optionally overwriting the oldest element when full
+ *
+ * @param <E> element type, null is not allowed
+ */
+public interface RingBuffer<E> {
+    /**
+     * offer status: the element is queued
+     */
+    int OK = 0;
+    /**
+     * offer status: the buffer is full, the element is NOT queued
+     */
+    int FULL = 1;
+    /**
+     * offer status: the buffer was full, the oldest element(s) were dropped and the element is queued
+     */
+    int OVERWRITTEN = 2;
+
+    /**
+     * @return OK, FULL or OVERWRITTEN
+     */
+    int offer(E e);
+
+    /**
+     * @return the head element, null if empty
+     */
+    E poll();
+
+    /**
+     * approximate while producers/consumers are active
+     */
+    int size();
+
+    int capacity();
+}
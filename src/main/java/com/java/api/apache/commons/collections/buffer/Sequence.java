@@ -0,0 +1,44 @@
+package com.java.api.apache.commons.collections.buffer;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * a volatile long alone on its cache line(64 bytes): 7 longs of padding on each side, so the head index read by
+ * consumers and the tail index read by producers never share a line(no false sharing)
+ * <p>
+ * NOTE: the padding lives in super/sub classes because the jvm keeps the fields of a class hierarchy in order,
+ * while it may re-order the fields within one class.
+ */
+class Sequence extends SequenceValue {
+    long p9, p10, p11, p12, p13, p14, p15;
+
+    private static final AtomicLongFieldUpdater<SequenceValue> UPDATER =
+            AtomicLongFieldUpdater.newUpdater(SequenceValue.class, "value");
+
+    Sequence(long initial) {
+        value = initial;
+    }
+
+    long get() {
+        return value;
+    }
+
+    /**
+     * ordered store: cheaper than a volatile write, still visible to other threads in program order
+     */
+    void lazySet(long v) {
+        UPDATER.lazySet(this, v);
+    }
+
+    boolean compareAndSet(long expect, long update) {
+        return UPDATER.compareAndSet(this, expect, update);
+    }
+}
+
+class SequenceLhsPadding {
+    long p1, p2, p3, p4, p5, p6, p7;
+}
+
+class SequenceValue extends SequenceLhsPadding {
+    volatile long value;
+}
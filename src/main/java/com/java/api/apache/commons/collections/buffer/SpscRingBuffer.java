@@ -0,0 +1,86 @@
+package com.java.api.apache.commons.collections.buffer;
+
+/**
+ * lock-free bounded queue for exactly one producer thread and one consumer thread
+ * <p>
+ * vs MpmcRingBuffer:
+ * 1. no CAS, no per-slot sequence: the producer owns the tail, the consumer owns the head, each publishes its
+ * index with an ordered store
+ * 2. the producer caches the last head it read(and the consumer the last tail), so the other side's cache line is
+ * only touched when the buffer looks full(empty)
+ * <p>
+ * NOTE:
+ * 1. calling offer(...) from two threads(or poll() from two threads) corrupts the queue, use MpmcRingBuffer then
+ * 2. there is no overwrite mode: dropping the oldest element would make the producer a second consumer
+ *
+ * @param <E> element type, null is not allowed
+ */
+public class SpscRingBuffer<E> implements RingBuffer<E> {
+    private final Object[] elements;
+    private final int mask;
+    private final Sequence head = new Sequence(0);
+    private final Sequence tail = new Sequence(0);
+    /**
+     * producer-local copy of head
+     */
+    private long headCache;
+    /**
+     * consumer-local copy of tail
+     */
+    private long tailCache;
+
+    public SpscRingBuffer(int capacity) {
+        if (capacity < 2 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("capacity out of [2, 2^30]: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        elements = new Object[size];
+        mask = size - 1;
+    }
+
+    @Override
+    public int offer(E e) {
+        if (e == null) {
+            throw new NullPointerException("null element");
+        }
+        long pos = tail.get();
+        if (pos - headCache > mask) {
+            headCache = head.get();
+            if (pos - headCache > mask) {
+                return FULL;
+            }
+        }
+        elements[(int) pos & mask] = e;
+        // the element store can't be re-ordered after the ordered store of the tail
+        tail.lazySet(pos + 1);
+        return OK;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        long pos = head.get();
+        if (pos >= tailCache) {
+            tailCache = tail.get();
+            if (pos >= tailCache) {
+                return null;
+            }
+        }
+        int idx = (int) pos & mask;
+        E e = (E) elements[idx];
+        elements[idx] = null;
+        head.lazySet(pos + 1);
+        return e;
+    }
+
+    @Override
+    public int size() {
+        long size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(size, mask + 1));
+    }
+
+    @Override
+    public int capacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,139 @@
+package com.java.api.apache.commons.collections.columnar;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * fixed-size row selection: bit i set = row i selected
+ * <p>
+ * NOTE:
+ * 1. and/or/andNot work in place on 64 rows per step and return this, so filters combine without allocation
+ * 2. bits beyond size() are always 0
+ */
+public final class Bitmap {
+    private final long[] words;
+    private final int size;
+
+    public Bitmap(int size) {
+        this.size = size;
+        this.words = new long[(size + 63) >>> 6];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    long[] words() {
+        return words;
+    }
+
+    public boolean get(int i) {
+        return (words[i >>> 6] & (1L << i)) != 0;
+    }
+
+    public void set(int i) {
+        words[i >>> 6] |= 1L << i;
+    }
+
+    public void clear(int i) {
+        words[i >>> 6] &= ~(1L << i);
+    }
+
+    /**
+     * select all rows
+     */
+    public Bitmap fill() {
+        Arrays.fill(words, -1L);
+        trim();
+        return this;
+    }
+
+    public Bitmap clear() {
+        Arrays.fill(words, 0);
+        return this;
+    }
+
+    public Bitmap and(Bitmap other) {
+        for (int w = 0; w < words.length; w++) {
+            words[w] &= other.words[w];
+        }
+        return this;
+    }
+
+    public Bitmap or(Bitmap other) {
+        for (int w = 0; w < words.length; w++) {
+            words[w] |= other.words[w];
+        }
+        return this;
+    }
+
+    public Bitmap andNot(Bitmap other) {
+        for (int w = 0; w < words.length; w++) {
+            words[w] &= ~other.words[w];
+        }
+        return this;
+    }
+
+    public Bitmap not() {
+        for (int w = 0; w < words.length; w++) {
+            words[w] = ~words[w];
+        }
+        trim();
+        return this;
+    }
+
+    private void trim() {
+        if ((size & 63) != 0) {
+            words[words.length - 1] &= (1L << size) - 1;
+        }
+    }
+
+    public int cardinality() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    public boolean isEmpty() {
+        for (long word : words) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * visit the selected rows in ascending order
+     */
+    public void forEach(IntConsumer action) {
+        for (int w = 0; w < words.length; w++) {
+            long word = words[w];
+            while (word != 0) {
+                action.accept((w << 6) + Long.numberOfTrailingZeros(word));
+                // clear the lowest set bit
+                word &= word - 1;
+            }
+        }
+    }
+
+    public Bitmap copy() {
+        Bitmap copy = new Bitmap(size);
+        System.arraycopy(words, 0, copy.words, 0, words.length);
+        return copy;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("{");
+        forEach(new IntConsumer() {
+            @Override
+            public void accept(int i) {
+                sb.append(sb.length() > 1 ? "," : "").append(i);
+            }
+        });
+        return sb.append('}').toString();
+    }
+}
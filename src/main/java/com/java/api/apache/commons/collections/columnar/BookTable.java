@@ -0,0 +1,281 @@
+package com.java.api.apache.commons.collections.columnar;
+
+import com.java.api.apache.commons.collections.Book;
+
+import java.util.Arrays;
+
+/**
+ * Book records stored column by column, for analytic scans(filter, count, sum, group by)
+ * <p>
+ * STRUCTURE:
+ * 1. price: float[], a null price is stored as 0 and marked in a null bitmap
+ * 2. author/publisher/year: int[] codes of a per-column Dictionary(code 0 = null); name: String[]
+ * vs a Book[] walked by FilterIterator/Bag.getCount: a scan over the price column reads 4 bytes per row from one
+ * contiguous array, instead of chasing a Book and a boxed Float per row.
+ * <p>
+ * NOTE:
+ * 1. filters write a Bitmap(64 rows per long, built without branches) that can be reused and combined
+ * while the table keeps its size; every filter/aggregate rejects a Bitmap whose size() is not the table's
+ * 2. sums use several accumulators, so the loop is not serialized on one floating point add chain
+ * 3. group-by results are arrays indexed by dictionary code, no map and no boxing
+ * 4. append-only, not thread-safe; scans are safe once the table is no longer modified
+ */
+public class BookTable {
+    public static final int AUTHOR = 0, PUBLISHER = 1, YEAR = 2;
+
+    private String[] names;
+    private float[] prices;
+    private final int[][] codes = new int[3][];
+    private final Dictionary[] dictionaries = {new Dictionary(), new Dictionary(), new Dictionary()};
+    private long[] priceNulls;
+    private boolean hasPriceNulls;
+    private int size;
+
+    public BookTable(int expectedRows) {
+        int capacity = Math.max(expectedRows, 16);
+        names = new String[capacity];
+        prices = new float[capacity];
+        for (int c = 0; c < codes.length; c++) {
+            codes[c] = new int[capacity];
+        }
+        priceNulls = new long[(capacity + 63) >>> 6];
+    }
+
+    public static BookTable of(Book[] books) {
+        BookTable table = new BookTable(books.length);
+        for (Book bk : books) {
+            table.add(bk);
+        }
+        return table;
+    }
+
+    public void add(Book bk) {
+        if (size == prices.length) {
+            grow();
+        }
+        names[size] = bk.getName();
+        codes[AUTHOR][size] = dictionaries[AUTHOR].encode(bk.getAuthor());
+        codes[PUBLISHER][size] = dictionaries[PUBLISHER].encode(bk.getPublisher());
+        codes[YEAR][size] = dictionaries[YEAR].encode(bk.getYear());
+        Float price = bk.getPrice();
+        if (price == null) {
+            priceNulls[size >>> 6] |= 1L << size;
+            hasPriceNulls = true;
+        } else {
+            prices[size] = price;
+        }
+        size++;
+    }
+
+    private void grow() {
+        int capacity = prices.length * 2;
+        names = Arrays.copyOf(names, capacity);
+        prices = Arrays.copyOf(prices, capacity);
+        for (int c = 0; c < codes.length; c++) {
+            codes[c] = Arrays.copyOf(codes[c], capacity);
+        }
+        priceNulls = Arrays.copyOf(priceNulls, (capacity + 63) >>> 6);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * a Bitmap sized for this table, to pass to the filters; it no longer fits once rows are added
+     */
+    public Bitmap newBitmap() {
+        return new Bitmap(size);
+    }
+
+    /**
+     * materialize row i
+     */
+    public Book get(int i) {
+        boolean nullPrice = (priceNulls[i >>> 6] & (1L << i)) != 0;
+        return new Book(names[i], value(AUTHOR, i), value(PUBLISHER, i), value(YEAR, i),
+                nullPrice ? null : prices[i]);
+    }
+
+    public float price(int i) {
+        return prices[i];
+    }
+
+    public String value(int column, int i) {
+        return dictionaries[column].decode(codes[column][i]);
+    }
+
+    public Dictionary dictionary(int column) {
+        return dictionaries[column];
+    }
+
+    // ---------------- filters ----------------
+
+    /**
+     * a Bitmap of another size would leave rows out(rows appended since newBitmap()) or run past the columns
+     */
+    private void checkSize(Bitmap bitmap) {
+        if (bitmap.size() != size) {
+            throw new IllegalArgumentException(String.format("bitmap of %s rows for a table of %s rows, "
+                    + "take a new one from newBitmap()", bitmap.size(), size));
+        }
+    }
+
+    /**
+     * out = rows with lo <= price <= hi(null prices never match)
+     */
+    public Bitmap priceBetween(float lo, float hi, Bitmap out) {
+        checkSize(out);
+        long[] words = out.words();
+        for (int w = 0; w < words.length; w++) {
+            int base = w << 6;
+            int end = Math.min(64, size - base);
+            long bits = 0;
+            for (int j = 0; j < end; j++) {
+                float p = prices[base + j];
+                bits |= (p >= lo & p <= hi ? 1L : 0L) << j;
+            }
+            words[w] = bits & ~priceNulls[w];
+        }
+        return out;
+    }
+
+    public Bitmap priceAtLeast(float lo, Bitmap out) {
+        return priceBetween(lo, Float.POSITIVE_INFINITY, out);
+    }
+
+    /**
+     * out = rows whose column value equals value(null matches null)
+     */
+    public Bitmap equalTo(int column, String value, Bitmap out) {
+        checkSize(out);
+        int code = dictionaries[column].lookup(value);
+        if (code < 0) {
+            return out.clear();
+        }
+        int[] col = codes[column];
+        long[] words = out.words();
+        for (int w = 0; w < words.length; w++) {
+            int base = w << 6;
+            int end = Math.min(64, size - base);
+            long bits = 0;
+            for (int j = 0; j < end; j++) {
+                bits |= (col[base + j] == code ? 1L : 0L) << j;
+            }
+            words[w] = bits;
+        }
+        return out;
+    }
+
+    /**
+     * out = rows with a non-null price
+     */
+    public Bitmap priceNotNull(Bitmap out) {
+        checkSize(out);
+        long[] words = out.words();
+        System.arraycopy(priceNulls, 0, words, 0, words.length);
+        return out.not();
+    }
+
+    // ---------------- aggregates ----------------
+
+    /**
+     * sum of all prices(null prices count as 0)
+     */
+    public double sumPrice() {
+        double s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+        int i = 0;
+        for (; i + 3 < size; i += 4) {
+            s0 += prices[i];
+            s1 += prices[i + 1];
+            s2 += prices[i + 2];
+            s3 += prices[i + 3];
+        }
+        for (; i < size; i++) {
+            s0 += prices[i];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    /**
+     * sum of the prices of the selected rows
+     */
+    public double sumPrice(Bitmap filter) {
+        checkSize(filter);
+        long[] words = filter.words();
+        double sum = 0;
+        for (int w = 0; w < words.length; w++) {
+            long word = words[w];
+            if (word == -1L) {
+                // dense word: straight loop over 64 rows
+                int base = w << 6;
+                double s0 = 0, s1 = 0;
+                for (int j = 0; j < 64; j += 2) {
+                    s0 += prices[base + j];
+                    s1 += prices[base + j + 1];
+                }
+                sum += s0 + s1;
+            } else {
+                int base = w << 6;
+                while (word != 0) {
+                    sum += prices[base + Long.numberOfTrailingZeros(word)];
+                    word &= word - 1;
+                }
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * number of rows with a non-null price
+     */
+    public int countPrice() {
+        if (!hasPriceNulls) {
+            return size;
+        }
+        int nulls = 0;
+        for (long word : priceNulls) {
+            nulls += Long.bitCount(word);
+        }
+        return size - nulls;
+    }
+
+    /**
+     * number of selected rows per code of column, indexed by code(see dictionary(column))
+     */
+    public int[] groupCount(int column, Bitmap filter) {
+        checkSize(filter);
+        int[] col = codes[column];
+        int[] counts = new int[dictionaries[column].size()];
+        long[] words = filter.words();
+        for (int w = 0; w < words.length; w++) {
+            long word = words[w];
+            int base = w << 6;
+            while (word != 0) {
+                counts[col[base + Long.numberOfTrailingZeros(word)]]++;
+                word &= word - 1;
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * sum of the prices of the selected rows per code of column, indexed by code
+     */
+    public double[] groupSumPrice(int column, Bitmap filter) {
+        checkSize(filter);
+        int[] col = codes[column];
+        double[] sums = new double[dictionaries[column].size()];
+        long[] words = filter.words();
+        for (int w = 0; w < words.length; w++) {
+            long word = words[w];
+            int base = w << 6;
+            while (word != 0) {
+                int i = base + Long.numberOfTrailingZeros(word);
+                sums[col[i]] += prices[i];
+                word &= word - 1;
+            }
+        }
+        return sums;
+    }
+}
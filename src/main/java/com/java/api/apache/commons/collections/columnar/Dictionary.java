@@ -0,0 +1,59 @@
+package com.java.api.apache.commons.collections.columnar;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * string <-> int code, for dictionary-encoded columns
+ * <p>
+ * NOTE: code 0 is null; the codes of the other values are dense(1, 2, ...) in order of first appearance, so a
+ * group-by can index a plain array with them
+ */
+public final class Dictionary {
+    public static final int NULL = 0;
+
+    private final HashMap<String, Integer> codes = new HashMap<>();
+    private String[] values = new String[8];
+    private int size = 1;
+
+    /**
+     * @return code of value, assigned on first use
+     */
+    public int encode(String value) {
+        if (value == null) {
+            return NULL;
+        }
+        Integer code = codes.get(value);
+        if (code == null) {
+            code = size;
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+            codes.put(value, code);
+        }
+        return code;
+    }
+
+    /**
+     * @return code of value, -1 if it never occurred(no row can match it)
+     */
+    public int lookup(String value) {
+        if (value == null) {
+            return NULL;
+        }
+        Integer code = codes.get(value);
+        return code == null ? -1 : code;
+    }
+
+    public String decode(int code) {
+        return values[code];
+    }
+
+    /**
+     * number of codes, including NULL; group-by arrays have this length
+     */
+    public int size() {
+        return size;
+    }
+}
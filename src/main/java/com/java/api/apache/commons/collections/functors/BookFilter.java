@@ -0,0 +1,444 @@
+package com.java.api.apache.commons.collections.functors;
+
+import com.java.api.apache.commons.collections.Book;
+import org.apache.commons.collections.Predicate;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * field-level conditions on Book, compiled into one evaluator
+ * <p>
+ * vs PredicateUtils.allPredicate(new Predicate[]{...}):
+ * 1. conditions are merged when built: all price bounds become ONE interval, equal-field clauses collapse,
+ * null checks become two bit masks, a contradiction(e.g. author a AND author b) becomes "never"
+ * 2. one final class evaluates everything: no array of megamorphic evaluate(Object) calls, no cast per clause,
+ * the price is unboxed once
+ * 3. clauses run in order of cost / (1 - pass rate), so the cheap, selective ones reject first; pass rates are
+ * guessed, or measured on a sample by build(Book[] sample)
+ * 4. select(...) filters an array clause by clause over a selection vector: each pass is a tight loop on one field
+ * <p>
+ * usage: BookFilter.builder().priceAbove(10f).publisher("pb").notNull(BookFilter.AUTHOR).build()
+ * <p>
+ * NOTE: immutable and thread-safe; also a commons Predicate, so it drops into existing code
+ */
+public final class BookFilter implements Predicate {
+    /**
+     * field bits, for notNull/isNull
+     */
+    public static final int NAME = 1, AUTHOR = 1 << 1, PUBLISHER = 1 << 2, YEAR = 1 << 3, PRICE = 1 << 4;
+
+    /**
+     * clause ids
+     */
+    private static final int OP_NULLS = 0, OP_PRICE = 1, OP_AUTHOR = 2, OP_PUBLISHER = 3, OP_YEAR = 4;
+    /**
+     * relative cost of a clause: field reads + a compare, an unboxing, a string equals
+     */
+    private static final double[] COST = {1, 2, 3, 3, 3};
+
+    private final boolean never;
+    private final int notNullMask;
+    private final int nullMask;
+    private final float lo;
+    private final float hi;
+    private final boolean loInclusive;
+    private final boolean hiInclusive;
+    private final String author;
+    private final String publisher;
+    private final String year;
+    private final int[] order;
+
+    private BookFilter(Builder builder, int[] order) {
+        this.never = builder.never;
+        this.notNullMask = builder.notNullMask;
+        this.nullMask = builder.nullMask;
+        this.lo = builder.lo;
+        this.hi = builder.hi;
+        this.loInclusive = builder.loInclusive;
+        this.hiInclusive = builder.hiInclusive;
+        this.author = builder.author;
+        this.publisher = builder.publisher;
+        this.year = builder.year;
+        this.order = order;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * commons Predicate: false for null and non-Book input
+     */
+    @Override
+    public boolean evaluate(Object o) {
+        return o instanceof Book && test((Book) o);
+    }
+
+    public boolean test(Book b) {
+        if (b == null || never) {
+            return false;
+        }
+        for (int op : order) {
+            if (!test(op, b)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean test(int op, Book b) {
+        switch (op) {
+            case OP_NULLS:
+                int mask = nullBits(b);
+                return (mask & notNullMask) == 0 && (~mask & nullMask) == 0;
+            case OP_PRICE:
+                Float price = b.getPrice();
+                return price != null && inRange(price);
+            case OP_AUTHOR:
+                return same(author, b.getAuthor());
+            case OP_PUBLISHER:
+                return same(publisher, b.getPublisher());
+            default:
+                return same(year, b.getYear());
+        }
+    }
+
+    private static int nullBits(Book b) {
+        return (b.getName() == null ? NAME : 0) | (b.getAuthor() == null ? AUTHOR : 0)
+                | (b.getPublisher() == null ? PUBLISHER : 0) | (b.getYear() == null ? YEAR : 0)
+                | (b.getPrice() == null ? PRICE : 0);
+    }
+
+    private boolean inRange(float p) {
+        return (loInclusive ? p >= lo : p > lo) && (hiInclusive ? p <= hi : p < hi);
+    }
+
+    private static boolean same(String expected, String actual) {
+        return expected == actual || expected.equals(actual);
+    }
+
+    /**
+     * batch filter: indexes of the matching books in [from, to), written to sel in ascending order
+     *
+     * @param sel at least to - from long
+     * @return number of matches, i.e. the valid length of sel
+     */
+    public int select(Book[] books, int from, int to, int[] sel) {
+        if (never) {
+            return 0;
+        }
+        int n = 0;
+        for (int i = from; i < to; i++) {
+            if (books[i] != null) {
+                sel[n++] = i;
+            }
+        }
+        for (int op : order) {
+            n = select(op, books, sel, n);
+        }
+        return n;
+    }
+
+    /**
+     * one pass of one clause over the selection vector, compacting it in place
+     */
+    private int select(int op, Book[] books, int[] sel, int n) {
+        int m = 0;
+        switch (op) {
+            case OP_NULLS:
+                for (int j = 0; j < n; j++) {
+                    int mask = nullBits(books[sel[j]]);
+                    if ((mask & notNullMask) == 0 && (~mask & nullMask) == 0) {
+                        sel[m++] = sel[j];
+                    }
+                }
+                return m;
+            case OP_PRICE:
+                for (int j = 0; j < n; j++) {
+                    Float price = books[sel[j]].getPrice();
+                    if (price != null && inRange(price)) {
+                        sel[m++] = sel[j];
+                    }
+                }
+                return m;
+            case OP_AUTHOR:
+                for (int j = 0; j < n; j++) {
+                    if (same(author, books[sel[j]].getAuthor())) {
+                        sel[m++] = sel[j];
+                    }
+                }
+                return m;
+            case OP_PUBLISHER:
+                for (int j = 0; j < n; j++) {
+                    if (same(publisher, books[sel[j]].getPublisher())) {
+                        sel[m++] = sel[j];
+                    }
+                }
+                return m;
+            default:
+                for (int j = 0; j < n; j++) {
+                    if (same(year, books[sel[j]].getYear())) {
+                        sel[m++] = sel[j];
+                    }
+                }
+                return m;
+        }
+    }
+
+    /**
+     * number of matching books, without collecting them
+     */
+    public int count(Book[] books) {
+        int count = 0;
+        for (Book b : books) {
+            if (test(b)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("BookFilter[");
+        if (never) {
+            return sb.append("never]").toString();
+        }
+        for (int op : order) {
+            if (sb.charAt(sb.length() - 1) != '[') {
+                sb.append(' ');
+            }
+            switch (op) {
+                case OP_NULLS:
+                    sb.append("notNull=").append(notNullMask).append(",isNull=").append(nullMask);
+                    break;
+                case OP_PRICE:
+                    sb.append(loInclusive ? '[' : '(').append(lo).append(',').append(hi)
+                            .append(hiInclusive ? ']' : ')');
+                    break;
+                case OP_AUTHOR:
+                    sb.append("author=").append(author);
+                    break;
+                case OP_PUBLISHER:
+                    sb.append("publisher=").append(publisher);
+                    break;
+                default:
+                    sb.append("year=").append(year);
+            }
+        }
+        return sb.append(']').toString();
+    }
+
+    /**
+     * collects conditions(all of them must hold), merging them as they come
+     * <p>
+     * NOTE: not thread-safe, build() may be called more than once
+     */
+    public static final class Builder {
+        private boolean never;
+        private int notNullMask;
+        private int nullMask;
+        private float lo = Float.NEGATIVE_INFINITY;
+        private float hi = Float.POSITIVE_INFINITY;
+        private boolean loInclusive = true;
+        private boolean hiInclusive = true;
+        private String author;
+        private String publisher;
+        private String year;
+
+        private Builder() {
+        }
+
+        /**
+         * price > bound
+         */
+        public Builder priceAbove(float bound) {
+            return lower(bound, false);
+        }
+
+        /**
+         * price >= bound
+         */
+        public Builder priceAtLeast(float bound) {
+            return lower(bound, true);
+        }
+
+        /**
+         * price < bound
+         */
+        public Builder priceBelow(float bound) {
+            return upper(bound, false);
+        }
+
+        /**
+         * price <= bound
+         */
+        public Builder priceAtMost(float bound) {
+            return upper(bound, true);
+        }
+
+        /**
+         * lo <= price <= hi
+         */
+        public Builder priceBetween(float lo, float hi) {
+            return lower(lo, true).upper(hi, true);
+        }
+
+        private Builder lower(float bound, boolean inclusive) {
+            if (bound > lo || (bound == lo && !inclusive)) {
+                lo = bound;
+                loInclusive = inclusive;
+            }
+            return this;
+        }
+
+        private Builder upper(float bound, boolean inclusive) {
+            if (bound < hi || (bound == hi && !inclusive)) {
+                hi = bound;
+                hiInclusive = inclusive;
+            }
+            return this;
+        }
+
+        public Builder author(String author) {
+            this.author = merge(this.author, author);
+            return this;
+        }
+
+        public Builder publisher(String publisher) {
+            this.publisher = merge(this.publisher, publisher);
+            return this;
+        }
+
+        public Builder year(String year) {
+            this.year = merge(this.year, year);
+            return this;
+        }
+
+        private String merge(String current, String value) {
+            if (value == null) {
+                throw new NullPointerException("use isNull(...) to match null fields");
+            }
+            if (current != null && !current.equals(value)) {
+                never = true;
+            }
+            return value;
+        }
+
+        /**
+         * @param fields bits, e.g. AUTHOR | PUBLISHER
+         */
+        public Builder notNull(int fields) {
+            notNullMask |= fields;
+            return this;
+        }
+
+        public Builder isNull(int fields) {
+            nullMask |= fields;
+            return this;
+        }
+
+        /**
+         * compile with guessed pass rates
+         */
+        public BookFilter build() {
+            return build(null);
+        }
+
+        /**
+         * compile with the pass rate of every clause measured on sample
+         */
+        public BookFilter build(Book[] sample) {
+            // a field that must equal a value or lie in the price range can't be null as well
+            int valueMask = (author != null ? AUTHOR : 0) | (publisher != null ? PUBLISHER : 0)
+                    | (year != null ? YEAR : 0) | (hasPriceBound() ? PRICE : 0);
+            boolean contradiction = never || (notNullMask & nullMask) != 0 || (valueMask & nullMask) != 0
+                    || lo > hi || (lo == hi && !(loInclusive && hiInclusive));
+            Builder merged = copy();
+            merged.never = contradiction;
+            int[] ops = new int[OP_YEAR + 1];
+            int n = 0;
+            if ((notNullMask | nullMask) != 0) {
+                ops[n++] = OP_NULLS;
+            }
+            if (hasPriceBound()) {
+                ops[n++] = OP_PRICE;
+            }
+            if (author != null) {
+                ops[n++] = OP_AUTHOR;
+            }
+            if (publisher != null) {
+                ops[n++] = OP_PUBLISHER;
+            }
+            if (year != null) {
+                ops[n++] = OP_YEAR;
+            }
+            final double[] rank = new double[OP_YEAR + 1];
+            Integer[] sorted = new Integer[n];
+            for (int i = 0; i < n; i++) {
+                int op = ops[i];
+                double passRate = sample == null || sample.length == 0 ? guessPassRate(op)
+                        : measurePassRate(new BookFilter(merged, new int[]{op}), sample);
+                // expected cost of rejecting a record with this clause; a clause that passes everything goes last
+                rank[op] = COST[op] / Math.max(1e-3, 1 - passRate);
+                sorted[i] = op;
+            }
+            Arrays.sort(sorted, new Comparator<Integer>() {
+                @Override
+                public int compare(Integer a, Integer b) {
+                    return Double.compare(rank[a], rank[b]);
+                }
+            });
+            int[] order = new int[n];
+            for (int i = 0; i < n; i++) {
+                order[i] = sorted[i];
+            }
+            return new BookFilter(merged, order);
+        }
+
+        private boolean hasPriceBound() {
+            return lo != Float.NEGATIVE_INFINITY || hi != Float.POSITIVE_INFINITY;
+        }
+
+        private double guessPassRate(int op) {
+            switch (op) {
+                case OP_NULLS:
+                    return 0.9;
+                case OP_PRICE:
+                    return lo != Float.NEGATIVE_INFINITY && hi != Float.POSITIVE_INFINITY ? 0.25 : 0.5;
+                default:
+                    return 0.1;
+            }
+        }
+
+        private static double measurePassRate(BookFilter clause, Book[] sample) {
+            int pass = 0;
+            int total = 0;
+            for (Book b : sample) {
+                if (b != null) {
+                    total++;
+                    if (clause.test(b)) {
+                        pass++;
+                    }
+                }
+            }
+            return total == 0 ? 0.5 : (double) pass / total;
+        }
+
+        private Builder copy() {
+            Builder b = new Builder();
+            b.never = never;
+            b.notNullMask = notNullMask;
+            b.nullMask = nullMask;
+            b.lo = lo;
+            b.hi = hi;
+            b.loInclusive = loInclusive;
+            b.hiInclusive = hiInclusive;
+            b.author = author;
+            b.publisher = publisher;
+            b.year = year;
+            return b;
+        }
+    }
+}
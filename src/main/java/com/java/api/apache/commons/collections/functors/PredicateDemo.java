@@ -35,5 +35,23 @@ public class PredicateDemo {
             System.out.println("is " + bk + " price >10: " + valCondition.evaluate(bk));
             System.out.println("***is " + bk + " all three conditions: " + allConditions.evaluate(bk));
         }
+        compiledFilter(books);
+    }
+
+    /**
+     * the same conditions compiled into one BookFilter
+     * NOTE:
+     * 1. instanceof/not null are implied by the typed, null-safe evaluator; the price check is unboxed once
+     * 2. select(...) filters the whole array in one call, clause by clause
+     */
+    static void compiledFilter(Book[] books) {
+        System.out.println(StringUtils.center("compiled filter", 50, "="));
+        BookFilter filter = BookFilter.builder().priceAbove(10f).build(books);
+        System.out.println(filter);
+        int[] sel = new int[books.length];
+        int n = filter.select(books, 0, books.length, sel);
+        for (int i = 0; i < n; i++) {
+            System.out.println("***" + books[sel[i]] + " matches all conditions: " + filter.evaluate(books[sel[i]]));
+        }
     }
 }
@@ -0,0 +1,88 @@
+package com.java.api.apache.commons.collections.iterators;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * the first 'count' elements of an endless loop over an array, the splittable form of LoopingIterator
+ * <p>
+ * NOTE:
+ * 1. position i of the loop is array[i % length], so any [from, to) of positions can be visited independently:
+ * trySplit() hands off the first half, both halves stay SIZED(exact size known) and SUBSIZED
+ * 2. the count is required: a stream must be finite to be SIZED
+ *
+ * @param <T> element type
+ */
+public class CyclicSpliterator<T> implements Spliterator<T> {
+    private final Object[] array;
+    private long index;
+    private final long fence;
+
+    /**
+     * @param array not copied, must not be empty
+     * @param count number of elements to visit
+     */
+    public CyclicSpliterator(Object[] array, long count) {
+        this(array, 0, count);
+        if (count < 0) {
+            throw new IllegalArgumentException("negative count: " + count);
+        }
+    }
+
+    private CyclicSpliterator(Object[] array, long index, long fence) {
+        if (array.length == 0) {
+            throw new IllegalArgumentException("can't loop over an empty array");
+        }
+        this.array = array;
+        this.index = index;
+        this.fence = fence;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean tryAdvance(Consumer<? super T> action) {
+        if (index >= fence) {
+            return false;
+        }
+        action.accept((T) array[(int) (index++ % array.length)]);
+        return true;
+    }
+
+    /**
+     * one modulo for the whole run, then a wrapping int cursor
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEachRemaining(Consumer<? super T> action) {
+        long remaining = fence - index;
+        int pos = (int) (index % array.length);
+        index = fence;
+        for (long i = 0; i < remaining; i++) {
+            action.accept((T) array[pos]);
+            if (++pos == array.length) {
+                pos = 0;
+            }
+        }
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        long mid = (index + fence) >>> 1;
+        if (mid <= index) {
+            return null;
+        }
+        Spliterator<T> prefix = new CyclicSpliterator<>(array, index, mid);
+        index = mid;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return fence - index;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | SIZED | SUBSIZED;
+    }
+}
@@ -0,0 +1,91 @@
+package com.java.api.apache.commons.collections.iterators;
+
+import java.util.Comparator;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * the elements of a source spliterator that match a predicate, the splittable form of FilterIterator
+ * <p>
+ * NOTE:
+ * 1. trySplit() splits the SOURCE: over an array source the halves are balanced by position, whatever the
+ * predicate keeps
+ * 2. the number of matches is unknown until visited, so SIZED/SUBSIZED are dropped and estimateSize() is the
+ * source's size(an upper bound); the other characteristics(ORDERED, SORTED, NONNULL...) are kept
+ * 3. the predicate may be called from several threads at once in a parallel stream
+ *
+ * @param <T> element type
+ */
+public class FilterSpliterator<T> implements Spliterator<T>, Consumer<T> {
+    private final Spliterator<T> source;
+    private final Predicate<? super T> predicate;
+    /**
+     * element handed over by the source in tryAdvance
+     */
+    private T current;
+    private boolean matched;
+
+    public FilterSpliterator(Spliterator<T> source, Predicate<? super T> predicate) {
+        this.source = source;
+        this.predicate = predicate;
+    }
+
+    /**
+     * source callback of tryAdvance, no Consumer allocated per element
+     */
+    @Override
+    public void accept(T t) {
+        if (predicate.test(t)) {
+            current = t;
+            matched = true;
+        }
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        matched = false;
+        while (source.tryAdvance(this)) {
+            if (matched) {
+                T t = current;
+                current = null;
+                action.accept(t);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void forEachRemaining(final Consumer<? super T> action) {
+        source.forEachRemaining(new Consumer<T>() {
+            @Override
+            public void accept(T t) {
+                if (predicate.test(t)) {
+                    action.accept(t);
+                }
+            }
+        });
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        Spliterator<T> prefix = source.trySplit();
+        return prefix == null ? null : new FilterSpliterator<>(prefix, predicate);
+    }
+
+    @Override
+    public long estimateSize() {
+        return source.estimateSize();
+    }
+
+    @Override
+    public int characteristics() {
+        return source.characteristics() & ~(SIZED | SUBSIZED);
+    }
+
+    @Override
+    public Comparator<? super T> getComparator() {
+        return source.getComparator();
+    }
+}
@@ -1,6 +1,9 @@
 package com.java.api.apache.commons.collections.iterators;
 
 import com.java.api.apache.commons.collections.Book;
+import com.java.api.apache.commons.collections.columnar.Bitmap;
+import com.java.api.apache.commons.collections.columnar.BookTable;
+import com.java.api.apache.commons.collections.columnar.Dictionary;
 import org.apache.commons.collections.Predicate;
 import org.apache.commons.collections.iterators.ArrayListIterator;
 import org.apache.commons.collections.iterators.FilterIterator;
@@ -10,6 +13,9 @@ import org.apache.commons.lang3.StringUtils;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.StreamSupport;
 
 /**
  * TODO
@@ -29,6 +35,8 @@ public class IteratorDemo {
         demo.partialItr(books);
         demo.loopItr(Arrays.asList(books));
         demo.filterItr(Arrays.asList(books));
+        demo.columnarFilter(books);
+        demo.parallelViews(books);
     }
 
     void partialItr(Book[] books) {
@@ -64,4 +72,48 @@ public class IteratorDemo {
             System.out.println(itr.next());
         }
     }
+
+    /**
+     * filterItr on columns: the price >= 10 filter is a scan of a float[] into a bitmap; count, sum and group by
+     * author then read only the selected rows, no iterator and no Book per row
+     */
+    void columnarFilter(Book[] books) {
+        System.out.println(StringUtils.center("columnar filter", 50, "="));
+        BookTable table = BookTable.of(books);
+        Bitmap selected = table.priceAtLeast(10, table.newBitmap());
+        System.out.println("rows: " + selected + ", count: " + selected.cardinality() + ", total value: "
+                + table.sumPrice(selected));
+        double[] byAuthor = table.groupSumPrice(BookTable.AUTHOR, selected);
+        Dictionary authors = table.dictionary(BookTable.AUTHOR);
+        for (int code = 0; code < byAuthor.length; code++) {
+            if (byAuthor[code] > 0) {
+                System.out.println("***" + authors.decode(code) + ": " + byAuthor[code]);
+            }
+        }
+    }
+
+    /**
+     * partialItr/loopItr/filterItr as Spliterators, usable by parallel streams
+     * NOTE:
+     * 1. partial: Arrays.spliterator(array, from, to) is already SIZED/SUBSIZED and splits in halves
+     * 2. looping: CyclicSpliterator visits a fixed count of positions, each half of a split is exactly sized
+     * 3. filter: FilterSpliterator splits its source evenly, the match count is only an upper bound(not SIZED)
+     */
+    void parallelViews(Book[] books) {
+        System.out.println(StringUtils.center("parallel views", 50, "="));
+        Spliterator<Book> partial = Arrays.spliterator(books, 0, 2);
+        System.out.println("partial size: " + partial.getExactSizeIfKnown());
+        StreamSupport.stream(partial, true).forEachOrdered(new Consumer<Book>() {
+            @Override
+            public void accept(Book book) {
+                System.out.println(book);
+            }
+        });
+        Spliterator<Book> looping = new CyclicSpliterator<>(books, 10);
+        System.out.println("looping total price: " + StreamSupport.stream(looping, true)
+                .mapToDouble(Book::getPrice).sum());
+        Spliterator<Book> filter = new FilterSpliterator<>(Arrays.spliterator(books),
+                book -> book.getPrice() >= 10);
+        System.out.println("filter count: " + StreamSupport.stream(filter, true).count());
+    }
 }
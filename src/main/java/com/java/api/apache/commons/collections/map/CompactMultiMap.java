@@ -0,0 +1,277 @@
+package com.java.api.apache.commons.collections.map;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * multi map for many keys with few values each
+ * <p>
+ * vs MultiValueMap(an ArrayList per key, default capacity 10):
+ * the slot of a key holds
+ * 1. the value itself, while the key has 1 value
+ * 2. an exactly sized Object[], for 2..ARRAY_LIMIT values
+ * 3. an ArrayList, beyond ARRAY_LIMIT
+ * so a key with 1-3 values costs its map entry + at most one small array.
+ * <p>
+ * NOTE:
+ * 1. get(key) is a read-only view, not the live collection; change values by put/remove
+ * 2. freeze() packs a finished map into a FrozenMultiMap(flat arrays, CSR layout) for read-only lookup tables
+ * 3. not thread-safe
+ *
+ * @param <K> key type
+ * @param <V> value type, null is not allowed
+ */
+public class CompactMultiMap<K, V> {
+    /**
+     * max number of values kept in a plain array; the array is re-copied on each add, so keep it small
+     */
+    static final int ARRAY_LIMIT = 8;
+
+    private final HashMap<K, Object> slots;
+    private int totalSize;
+
+    public CompactMultiMap() {
+        this(16);
+    }
+
+    public CompactMultiMap(int expectedKeys) {
+        slots = new HashMap<>(Math.max(16, (int) (expectedKeys / 0.75f) + 1));
+    }
+
+    public void put(K key, V value) {
+        if (value == null) {
+            throw new NullPointerException("null value");
+        }
+        Object slot = slots.get(key);
+        if (slot == null && !slots.containsKey(key)) {
+            // a value that looks like our own containers is boxed into a 1-element array
+            slots.put(key, isContainer(value) ? new Object[]{value} : value);
+        } else if (slot instanceof Object[]) {
+            Object[] array = (Object[]) slot;
+            if (array.length < ARRAY_LIMIT) {
+                array = Arrays.copyOf(array, array.length + 1);
+                array[array.length - 1] = value;
+                slots.put(key, array);
+            } else {
+                ValueList list = new ValueList(array.length * 2);
+                Collections.addAll(list, array);
+                list.add(value);
+                slots.put(key, list);
+            }
+        } else if (slot instanceof ValueList) {
+            ((ValueList) slot).add(value);
+        } else {
+            slots.put(key, new Object[]{slot, value});
+        }
+        totalSize++;
+    }
+
+    private static boolean isContainer(Object value) {
+        return value instanceof Object[] || value instanceof ValueList;
+    }
+
+    /**
+     * @return read-only values of key, empty if none
+     */
+    @SuppressWarnings("unchecked")
+    public List<V> get(Object key) {
+        Object slot = slots.get(key);
+        if (slot == null) {
+            return Collections.emptyList();
+        }
+        if (slot instanceof Object[]) {
+            return (List<V>) Collections.unmodifiableList(Arrays.asList((Object[]) slot));
+        }
+        if (slot instanceof ValueList) {
+            return (List<V>) Collections.unmodifiableList((ValueList) slot);
+        }
+        return Collections.singletonList((V) slot);
+    }
+
+    /**
+     * visit the values of key without creating a view
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(Object key, Consumer<? super V> action) {
+        Object slot = slots.get(key);
+        if (slot == null) {
+            return;
+        }
+        if (slot instanceof Object[]) {
+            for (Object v : (Object[]) slot) {
+                action.accept((V) v);
+            }
+        } else if (slot instanceof ValueList) {
+            for (Object v : (ValueList) slot) {
+                action.accept((V) v);
+            }
+        } else {
+            action.accept((V) slot);
+        }
+    }
+
+    /**
+     * visit every (key, value) pair
+     */
+    public void forEach(final BiConsumer<? super K, ? super V> action) {
+        for (final K key : slots.keySet()) {
+            forEach(key, new Consumer<V>() {
+                @Override
+                public void accept(V v) {
+                    action.accept(key, v);
+                }
+            });
+        }
+    }
+
+    public int getCount(Object key) {
+        Object slot = slots.get(key);
+        if (slot == null) {
+            return 0;
+        }
+        if (slot instanceof Object[]) {
+            return ((Object[]) slot).length;
+        }
+        if (slot instanceof ValueList) {
+            return ((ValueList) slot).size();
+        }
+        return 1;
+    }
+
+    public boolean containsKey(Object key) {
+        return slots.containsKey(key);
+    }
+
+    /**
+     * remove one occurrence of value from key, the key is dropped with its last value
+     */
+    @SuppressWarnings("SuspiciousMethodCalls")
+    public boolean remove(K key, Object value) {
+        Object slot = slots.get(key);
+        if (slot == null) {
+            return false;
+        }
+        if (slot instanceof Object[]) {
+            Object[] array = (Object[]) slot;
+            int idx = Arrays.asList(array).indexOf(value);
+            if (idx < 0) {
+                return false;
+            }
+            if (array.length == 2 && !isContainer(array[1 - idx])) {
+                slots.put(key, array[1 - idx]);
+            } else {
+                Object[] shrunk = new Object[array.length - 1];
+                System.arraycopy(array, 0, shrunk, 0, idx);
+                System.arraycopy(array, idx + 1, shrunk, idx, shrunk.length - idx);
+                if (shrunk.length == 0) {
+                    slots.remove(key);
+                } else {
+                    slots.put(key, shrunk);
+                }
+            }
+        } else if (slot instanceof ValueList) {
+            ValueList list = (ValueList) slot;
+            if (!list.remove(value)) {
+                return false;
+            }
+            if (list.size() <= ARRAY_LIMIT / 2) {
+                // back to an array, with some hysteresis against flapping at the limit
+                slots.put(key, list.toArray());
+            }
+        } else {
+            if (!slot.equals(value)) {
+                return false;
+            }
+            slots.remove(key);
+        }
+        totalSize--;
+        return true;
+    }
+
+    /**
+     * @return the removed values
+     */
+    public List<V> removeAll(Object key) {
+        List<V> values = get(key);
+        if (slots.remove(key) != null) {
+            totalSize -= values.size();
+        }
+        return values;
+    }
+
+    public Set<K> keySet() {
+        return Collections.unmodifiableSet(slots.keySet());
+    }
+
+    /**
+     * number of keys
+     */
+    public int size() {
+        return slots.size();
+    }
+
+    /**
+     * number of values
+     */
+    public int totalSize() {
+        return totalSize;
+    }
+
+    public void clear() {
+        slots.clear();
+        totalSize = 0;
+    }
+
+    /**
+     * copy into the immutable CSR form, see FrozenMultiMap
+     */
+    public FrozenMultiMap<K, V> freeze() {
+        final Object[] keys = new Object[slots.size()];
+        final int[] offsets = new int[slots.size() + 1];
+        final Object[] values = new Object[totalSize];
+        int k = 0;
+        int v = 0;
+        for (Map.Entry<K, Object> entry : slots.entrySet()) {
+            keys[k] = entry.getKey();
+            Object slot = entry.getValue();
+            if (slot instanceof Object[]) {
+                Object[] array = (Object[]) slot;
+                System.arraycopy(array, 0, values, v, array.length);
+                v += array.length;
+            } else if (slot instanceof ValueList) {
+                for (Object value : (ValueList) slot) {
+                    values[v++] = value;
+                }
+            } else {
+                values[v++] = slot;
+            }
+            offsets[++k] = v;
+        }
+        return new FrozenMultiMap<>(keys, offsets, values);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("{");
+        for (K key : slots.keySet()) {
+            sb.append(sb.length() > 1 ? ", " : "").append(key).append('=').append(get(key));
+        }
+        return sb.append('}').toString();
+    }
+
+    /**
+     * marks the large form, so it can't be mistaken for a single value that happens to be an ArrayList
+     */
+    private static final class ValueList extends ArrayList<Object> {
+        ValueList(int capacity) {
+            super(capacity);
+        }
+    }
+}
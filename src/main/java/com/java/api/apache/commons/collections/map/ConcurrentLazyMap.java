@@ -0,0 +1,287 @@
+package com.java.api.apache.commons.collections.map;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * thread-safe LazyMap: values are created on first get, once per key, in a bounded table
+ * <p>
+ * vs LazyMap.decorate(new HashMap(), factory):
+ * 1. single-flight: concurrent gets of a missing key share ONE loader call(the first caller installs a future,
+ * the others wait on it), so an expensive lookup is never done twice
+ * 2. async: with an Executor the loader runs off the caller thread, getAsync(...) returns the future
+ * 3. bounded: beyond maxSize, entries are evicted in CLOCK order(insertion order, a recently read entry gets a
+ * second chance); in-flight loads are never evicted
+ * 4. prefetch(keys): start the loads of many keys at once, through one bulk loader call if there is one
+ * <p>
+ * NOTE:
+ * 1. a failed load is not cached: the waiting callers get the exception, the next get retries
+ * 2. null is a valid(cached) value
+ * 3. invalidated/failed entries leave stale clock entries behind; they are drained once the clock holds more than
+ * 2 * maxSize entries, so the clock stays bounded even while the table is small
+ *
+ * @param <K> key type, null is not allowed
+ * @param <V> value type
+ */
+public class ConcurrentLazyMap<K, V> {
+    private final ConcurrentHashMap<K, Node<K, V>> nodes = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Node<K, V>> clock = new ConcurrentLinkedQueue<>();
+    /**
+     * length of clock(ConcurrentLinkedQueue.size() walks the queue), approximate while clear() races with admits
+     */
+    private final AtomicInteger clockLength = new AtomicInteger();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+    private final Function<? super K, ? extends V> loader;
+    private final Function<? super List<K>, ? extends Map<K, ? extends V>> bulkLoader;
+    private final int maxSize;
+    private final Executor executor;
+
+    /**
+     * loads in the caller thread
+     */
+    public ConcurrentLazyMap(Function<? super K, ? extends V> loader, int maxSize) {
+        this(loader, null, maxSize, null);
+    }
+
+    /**
+     * @param bulkLoader optional, loads the values of many keys in one call(e.g. one sql 'in' query); keys it
+     *                   leaves out of the result map to null
+     * @param executor   optional, runs the loads; null means the caller thread
+     */
+    public ConcurrentLazyMap(Function<? super K, ? extends V> loader,
+                             Function<? super List<K>, ? extends Map<K, ? extends V>> bulkLoader,
+                             int maxSize, Executor executor) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+        }
+        this.loader = loader;
+        this.bulkLoader = bulkLoader;
+        this.maxSize = maxSize;
+        this.executor = executor;
+    }
+
+    /**
+     * value of key, loaded(and waited for) on a miss
+     *
+     * @throws RuntimeException the loader's exception
+     */
+    public V get(K key) {
+        try {
+            return getAsync(key).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    public CompletableFuture<V> getAsync(K key) {
+        Node<K, V> node = nodes.get(key);
+        if (node != null) {
+            node.touch();
+            return node.future;
+        }
+        Node<K, V> created = new Node<>(key);
+        node = nodes.putIfAbsent(key, created);
+        if (node != null) {
+            node.touch();
+            return node.future;
+        }
+        admit(created);
+        load(created);
+        return created.future;
+    }
+
+    /**
+     * @return the loaded value, null if absent or still loading(no load is started)
+     */
+    public V getIfPresent(K key) {
+        Node<K, V> node = nodes.get(key);
+        if (node == null || !node.future.isDone() || node.future.isCompletedExceptionally()) {
+            return null;
+        }
+        node.touch();
+        return node.future.join();
+    }
+
+    /**
+     * start loading every missing key; keys that are present or loading are not loaded again
+     *
+     * @return completes when all keys are loaded
+     */
+    public CompletableFuture<Void> prefetch(Collection<? extends K> keys) {
+        List<CompletableFuture<V>> futures = new ArrayList<>(keys.size());
+        final List<Node<K, V>> missing = new ArrayList<>();
+        for (K key : keys) {
+            Node<K, V> node = nodes.get(key);
+            if (node == null) {
+                Node<K, V> created = new Node<>(key);
+                node = nodes.putIfAbsent(key, created);
+                if (node == null) {
+                    node = created;
+                    admit(created);
+                    missing.add(created);
+                }
+            }
+            futures.add(node.future);
+        }
+        if (!missing.isEmpty()) {
+            if (bulkLoader == null) {
+                for (Node<K, V> node : missing) {
+                    load(node);
+                }
+            } else {
+                run(new Runnable() {
+                    @Override
+                    public void run() {
+                        bulkLoad(missing);
+                    }
+                });
+            }
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()]));
+    }
+
+    public void invalidate(K key) {
+        nodes.remove(key);
+    }
+
+    public void clear() {
+        nodes.clear();
+        clock.clear();
+        clockLength.set(0);
+    }
+
+    public int size() {
+        return nodes.size();
+    }
+
+    int clockLength() {
+        return clockLength.get();
+    }
+
+    private void load(final Node<K, V> node) {
+        run(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    node.future.complete(loader.apply(node.key));
+                } catch (Throwable t) {
+                    fail(node, t);
+                }
+            }
+        });
+    }
+
+    private void bulkLoad(List<Node<K, V>> missing) {
+        List<K> keys = new ArrayList<>(missing.size());
+        for (Node<K, V> node : missing) {
+            keys.add(node.key);
+        }
+        try {
+            Map<K, ? extends V> values = bulkLoader.apply(Collections.unmodifiableList(keys));
+            for (Node<K, V> node : missing) {
+                node.future.complete(values.get(node.key));
+            }
+        } catch (Throwable t) {
+            for (Node<K, V> node : missing) {
+                fail(node, t);
+            }
+        }
+    }
+
+    private void fail(Node<K, V> node, Throwable t) {
+        if (node.future.isDone()) {
+            return;
+        }
+        // drop it before completing, so a caller woken by the failure retries with a fresh load
+        nodes.remove(node.key, node);
+        node.future.completeExceptionally(t);
+    }
+
+    private void run(Runnable task) {
+        if (executor == null) {
+            task.run();
+        } else {
+            executor.execute(task);
+        }
+    }
+
+    private void admit(Node<K, V> node) {
+        clock.add(node);
+        int length = clockLength.incrementAndGet();
+        if ((nodes.size() > maxSize || length > 2 * maxSize) && evicting.compareAndSet(false, true)) {
+            try {
+                evict();
+            } finally {
+                evicting.set(false);
+            }
+        }
+    }
+
+    /**
+     * CLOCK: take the oldest node, evict it unless it was read since its last pass(then clear the mark and requeue);
+     * stale entries are dropped on the way. bounded by two passes over the clock, so a table full of in-flight
+     * loads can't spin
+     */
+    private void evict() {
+        int budget = 2 * (clockLength.get() + 1);
+        while ((nodes.size() > maxSize || clockLength.get() > 2 * maxSize) && budget-- > 0) {
+            Node<K, V> node = clock.poll();
+            if (node == null) {
+                return;
+            }
+            clockLength.decrementAndGet();
+            if (nodes.get(node.key) != node) {
+                // invalidated, failed or replaced: a stale queue entry
+                continue;
+            }
+            if (nodes.size() <= maxSize) {
+                // only draining stale entries: keep the live ones and their marks
+                requeue(node);
+            } else if (node.referenced || !node.future.isDone()) {
+                node.referenced = false;
+                requeue(node);
+            } else {
+                nodes.remove(node.key, node);
+            }
+        }
+    }
+
+    private void requeue(Node<K, V> node) {
+        clock.add(node);
+        clockLength.incrementAndGet();
+    }
+
+    private static final class Node<K, V> {
+        final K key;
+        final CompletableFuture<V> future = new CompletableFuture<>();
+        volatile boolean referenced;
+
+        Node(K key) {
+            this.key = key;
+        }
+
+        void touch() {
+            // read before write: a hot entry doesn't keep dirtying its cache line
+            if (!referenced) {
+                referenced = true;
+            }
+        }
+    }
+}
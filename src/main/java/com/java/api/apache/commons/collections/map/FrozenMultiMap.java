@@ -0,0 +1,143 @@
+package com.java.api.apache.commons.collections.map;
+
+import java.util.AbstractList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * immutable multi map in CSR(compressed sparse row) layout, made by CompactMultiMap.freeze()
+ * <p>
+ * STRUCTURE:
+ * 1. keys[i]: the i-th key
+ * 2. values[offsets[i] .. offsets[i + 1]): the values of keys[i], all values in ONE flat array
+ * 3. index: open-addressing int table(linear probing, <= 1/2 load), key hash -> i + 1, 0 is empty
+ * so the whole table is 3 arrays + 1 int[], no entry or collection object per key.
+ * <p>
+ * NOTE: immutable, safe to share between threads once published(e.g. through a final or volatile field)
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public final class FrozenMultiMap<K, V> {
+    private final Object[] keys;
+    private final int[] offsets;
+    private final Object[] values;
+    private final int[] index;
+    private final int mask;
+
+    FrozenMultiMap(Object[] keys, int[] offsets, Object[] values) {
+        this.keys = keys;
+        this.offsets = offsets;
+        this.values = values;
+        int capacity = Integer.highestOneBit(Math.max(keys.length, 1) * 2 - 1) << 1;
+        index = new int[capacity];
+        mask = capacity - 1;
+        for (int i = 0; i < keys.length; i++) {
+            int h = hash(keys[i]) & mask;
+            while (index[h] != 0) {
+                h = (h + 1) & mask;
+            }
+            index[h] = i + 1;
+        }
+    }
+
+    private static int hash(Object o) {
+        int h = (o == null ? 0 : o.hashCode()) * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private int indexOf(Object key) {
+        int h = hash(key) & mask;
+        int slot;
+        while ((slot = index[h]) != 0) {
+            Object k = keys[slot - 1];
+            if (k == key || (k != null && k.equals(key))) {
+                return slot - 1;
+            }
+            h = (h + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * @return values of key(a view over the flat array), empty if none
+     */
+    public List<V> get(Object key) {
+        int i = indexOf(key);
+        if (i < 0) {
+            return Collections.emptyList();
+        }
+        return new Slice<>(values, offsets[i], offsets[i + 1]);
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEach(Object key, Consumer<? super V> action) {
+        int i = indexOf(key);
+        if (i < 0) {
+            return;
+        }
+        for (int v = offsets[i]; v < offsets[i + 1]; v++) {
+            action.accept((V) values[v]);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        for (int i = 0; i < keys.length; i++) {
+            for (int v = offsets[i]; v < offsets[i + 1]; v++) {
+                action.accept((K) keys[i], (V) values[v]);
+            }
+        }
+    }
+
+    public int getCount(Object key) {
+        int i = indexOf(key);
+        return i < 0 ? 0 : offsets[i + 1] - offsets[i];
+    }
+
+    public boolean containsKey(Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    /**
+     * number of keys
+     */
+    public int size() {
+        return keys.length;
+    }
+
+    /**
+     * number of values
+     */
+    public int totalSize() {
+        return values.length;
+    }
+
+    private static final class Slice<V> extends AbstractList<V> {
+        private final Object[] values;
+        private final int from;
+        private final int to;
+
+        Slice(Object[] values, int from, int to) {
+            this.values = values;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V get(int i) {
+            if (i < 0 || i >= to - from) {
+                throw new IndexOutOfBoundsException("index: " + i + ", size: " + (to - from));
+            }
+            return (V) values[from + i];
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+    }
+}
@@ -1,7 +1,12 @@
 package com.java.api.apache.http;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.java.api.jackson.Codec;
+import com.java.api.jackson.JsonMappers;
+import com.java.api.resilience.Deadline;
+import com.java.api.resilience.ExecutionPolicy;
+import com.java.api.resilience.RequestExecutor;
+import com.java.api.util.ConfigUtil;
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpHost;
 import org.apache.http.ParseException;
@@ -13,36 +18,54 @@ import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
-import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
-import org.apache.http.conn.ssl.TrustSelfSignedStrategy;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.client.BasicCredentialsProvider;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClients;
-import org.apache.http.ssl.SSLContexts;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.util.EntityUtils;
 
-import javax.net.ssl.SSLContext;
-import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
-import java.security.KeyManagementException;
-import java.security.KeyStore;
-import java.security.KeyStoreException;
-import java.security.NoSuchAlgorithmException;
-import java.security.cert.CertificateException;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
 
 /**
  * POINTS:
  * 1. basic http actions: get/post/put/delete
  * 2. add proxy
  * 3. *ssl
+ * 4. guarded request: pooled client + per-host adaptive concurrency limit + deadline + hedging(see RequestExecutor)
  *
  * Created by kevintian on 2017/9/29.
  */
 public class HttpClientDemo {
+    static final SslConfig SSL_CONFIG = new SslConfig(ConfigUtil.getProperty("ssl.truststore.path"),
+            ConfigUtil.getProperty("ssl.truststore.password"));
+    static final PoolingHttpClientConnectionManager CONN_MANAGER = new PoolingHttpClientConnectionManager(
+            RegistryBuilder.<ConnectionSocketFactory>create()
+                    .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                    .register("https", SSL_CONFIG)
+                    .build());
+    static final CloseableHttpClient POOLED_CLIENT;
+    static final RequestExecutor EXECUTOR;
+
+    static {
+        CONN_MANAGER.setMaxTotal(200);
+        CONN_MANAGER.setDefaultMaxPerRoute(50);
+        POOLED_CLIENT = HttpClients.custom().setConnectionManager(CONN_MANAGER).build();
+        ExecutionPolicy policy = new ExecutionPolicy();
+        policy.setMaxLimit(CONN_MANAGER.getDefaultMaxPerRoute());
+        policy.setHedgeEnabled(true);
+        EXECUTOR = new RequestExecutor(policy);
+    }
+
     /**
      * 发送 get请求
      */
@@ -86,6 +109,42 @@ public class HttpClientDemo {
         }
     }
 
+    /**
+     * GET through the shared pooled client, bounded by a deadline
+     * <p>
+     * NOTE:
+     * 1. connect/socket/pool-lease timeouts are derived from the time left, so a slow upstream can never hold the
+     * caller longer than timeoutMillis
+     * 2. the deadline is forwarded to the upstream in the header Deadline.HEADER
+     * 3. GET is idempotent, so it is safe to hedge
+     *
+     * @return response content
+     * @throws java.util.concurrent.RejectedExecutionException too many requests are in flight to the host
+     * @throws java.util.concurrent.TimeoutException           the deadline is exceeded
+     */
+    public String guardedGet(final String uri, long timeoutMillis) throws Exception {
+        final HttpGet probe = new HttpGet(uri);
+        String host = probe.getURI().getHost();
+        return EXECUTOR.execute(host, Deadline.after(timeoutMillis, TimeUnit.MILLISECONDS), new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                Deadline deadline = Deadline.current();
+                int remain = (int) Math.max(1, deadline.remaining(TimeUnit.MILLISECONDS));
+                HttpGet httpget = new HttpGet(uri);
+                httpget.setConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(remain)
+                        .setConnectTimeout(remain)
+                        .setSocketTimeout(remain)
+                        .build());
+                httpget.setHeader(Deadline.HEADER, deadline.toHeader());
+                try (CloseableHttpResponse response = POOLED_CLIENT.execute(httpget)) {
+                    HttpEntity entity = response.getEntity();
+                    return entity == null ? null : EntityUtils.toString(entity, "utf-8");
+                }
+            }
+        });
+    }
+
     public void getWithProxy(String uri, Proxy proxyParams) {
         // set proxy
         CredentialsProvider credsProvider = new BasicCredentialsProvider();
@@ -129,7 +188,7 @@ public class HttpClientDemo {
         }
         // set body
         try {
-            StringEntity json = new StringEntity(new ObjectMapper().writeValueAsString(body), "utf-8");
+            StringEntity json = new StringEntity(JsonMappers.writer(Map.class).writeValueAsString(body), "utf-8");
             httppost.setEntity(json);
         } catch (JsonProcessingException e) {
             e.printStackTrace();
@@ -163,6 +222,35 @@ public class HttpClientDemo {
         }
     }
 
+    /**
+     * POST the body in the given wire format through the pooled client, e.g. Codec.SMILE for internal services
+     * NOTE: Content-Type/Accept are set from the codec
+     */
+    public void post(String uri, Map<String, String> headers, Map<String, Object> body, Codec codec) {
+        HttpPost httppost = new HttpPost(uri);
+        for (Map.Entry<String, String> entry : headers.entrySet()) {
+            httppost.setHeader(entry.getKey(), entry.getValue());
+        }
+        httppost.setHeader("Accept", codec.getContentType());
+        try {
+            httppost.setEntity(new ByteArrayEntity(codec.encode(body), ContentType.create(codec.getContentType())));
+        } catch (JsonProcessingException e) {
+            e.printStackTrace();
+            return;
+        }
+        System.out.println("POST request " + httppost.getURI() + " as " + codec);
+        try (CloseableHttpResponse response = POOLED_CLIENT.execute(httppost)) {
+            HttpEntity entity = response.getEntity();
+            if (entity != null) {
+                System.out.println("--------------------------------------");
+                System.out.println("Response content length: " + EntityUtils.toByteArray(entity).length);
+                System.out.println("--------------------------------------");
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
     public void postWithProxy(String uri, Map<String, String> headers, Map<String, Object> body, Proxy proxyParams) {
         HttpPost httppost = new HttpPost(uri);
         // add headers
@@ -171,7 +259,7 @@ public class HttpClientDemo {
         }
         // set body
         try {
-            StringEntity json = new StringEntity(new ObjectMapper().writeValueAsString(body), "utf-8");
+            StringEntity json = new StringEntity(JsonMappers.writer(Map.class).writeValueAsString(body), "utf-8");
             httppost.setEntity(json);
         } catch (JsonProcessingException e) {
             e.printStackTrace();
@@ -211,64 +299,28 @@ public class HttpClientDemo {
     }
 
     /**
-     * TODO: HttpClient连接SSL
+     * HttpClient连接SSL
+     * <p>
+     * NOTE: the trust store is loaded once by SSL_CONFIG and the request goes through the pooled client, so only
+     * the first call pays the full handshake; later calls reuse the kept-alive connection or resume the session.
      */
     public void ssl() {
-        CloseableHttpClient httpclient = null;
-        try {
-            KeyStore trustStore = KeyStore.getInstance(KeyStore.getDefaultType());
-            FileInputStream instream = new FileInputStream(new File("d:\\tomcat.keystore"));
-            try {
-                // 加载keyStore d:\\tomcat.keystore
-                trustStore.load(instream, "123456".toCharArray());
-            } catch (CertificateException e) {
-                e.printStackTrace();
-            } finally {
-                try {
-                    instream.close();
-                } catch (Exception ignore) {
-                }
-            }
-            // 相信自己的CA和所有自签名的证书
-            SSLContext sslcontext = SSLContexts.custom().loadTrustMaterial(trustStore, new TrustSelfSignedStrategy()).build();
-            // 只允许使用TLSv1协议
-            SSLConnectionSocketFactory sslsf = new SSLConnectionSocketFactory(sslcontext, new String[] { "TLSv1" }, null,
-                    SSLConnectionSocketFactory.BROWSER_COMPATIBLE_HOSTNAME_VERIFIER);
-            httpclient = HttpClients.custom().setSSLSocketFactory(sslsf).build();
-            // 创建http请求(get方式)
-            HttpGet httpget = new HttpGet("https://localhost:8443/myDemo/Ajax/serivceJ.action");
-            System.out.println("executing request" + httpget.getRequestLine());
-            CloseableHttpResponse response = httpclient.execute(httpget);
-            try {
-                HttpEntity entity = response.getEntity();
-                System.out.println("----------------------------------------");
-                System.out.println(response.getStatusLine());
-                if (entity != null) {
-                    System.out.println("Response content length: " + entity.getContentLength());
-                    System.out.println(EntityUtils.toString(entity));
-                    EntityUtils.consume(entity);
-                }
-            } finally {
-                response.close();
+        // 创建http请求(get方式)
+        HttpGet httpget = new HttpGet("https://localhost:8443/myDemo/Ajax/serivceJ.action");
+        System.out.println("executing request" + httpget.getRequestLine());
+        try (CloseableHttpResponse response = POOLED_CLIENT.execute(httpget)) {
+            HttpEntity entity = response.getEntity();
+            System.out.println("----------------------------------------");
+            System.out.println(response.getStatusLine());
+            if (entity != null) {
+                System.out.println("Response content length: " + entity.getContentLength());
+                System.out.println(EntityUtils.toString(entity));
+                EntityUtils.consume(entity);
             }
         } catch (ParseException e) {
             e.printStackTrace();
         } catch (IOException e) {
             e.printStackTrace();
-        } catch (KeyManagementException e) {
-            e.printStackTrace();
-        } catch (NoSuchAlgorithmException e) {
-            e.printStackTrace();
-        } catch (KeyStoreException e) {
-            e.printStackTrace();
-        } finally {
-            if (httpclient != null) {
-                try {
-                    httpclient.close();
-                } catch (IOException e) {
-                    e.printStackTrace();
-                }
-            }
         }
     }
 
@@ -0,0 +1,136 @@
+package com.java.api.apache.http;
+
+import org.apache.http.HttpHost;
+import org.apache.http.conn.socket.LayeredConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.conn.ssl.TrustSelfSignedStrategy;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.ssl.SSLContextBuilder;
+import org.apache.http.ssl.SSLContexts;
+import org.apache.log4j.Logger;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSessionContext;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * https socket factory backed by ONE cached SSLContext
+ * <p>
+ * POINTS:
+ * 1. key material is loaded from disk once, on the first https connection(not at construction)
+ * 2. TLSv1.3/TLSv1.2 only, limited to what the running jvm supports
+ * 3. client session cache is enabled: since every connection comes from the same SSLContext, reconnecting to a
+ * host:port resumes the cached session(abbreviated handshake) instead of doing a full one
+ * 4. implements LayeredConnectionSocketFactory, so it can be registered for "https" in a pooling connection
+ * manager, where kept-alive connections skip the handshake altogether
+ */
+public class SslConfig implements LayeredConnectionSocketFactory {
+    static final Logger logger = Logger.getLogger(SslConfig.class);
+
+    static final String[] PREFERRED_PROTOCOLS = {"TLSv1.3", "TLSv1.2"};
+    static final int SESSION_CACHE_SIZE = 1000;
+    static final int SESSION_TIMEOUT_SECONDS = 24 * 60 * 60;
+
+    private final String trustStorePath;
+    private final char[] trustStorePassword;
+    // published by the volatile write of socketFactory
+    private SSLContext sslContext;
+    private volatile SSLConnectionSocketFactory socketFactory;
+
+    /**
+     * @param trustStorePath     trust store of the self-signed/private CA, null(or missing file) for the default
+     *                           jvm trust
+     * @param trustStorePassword
+     */
+    public SslConfig(String trustStorePath, String trustStorePassword) {
+        this.trustStorePath = trustStorePath;
+        this.trustStorePassword = trustStorePassword == null ? null : trustStorePassword.toCharArray();
+    }
+
+    /**
+     * the cached context, e.g. for clients other than httpclient
+     */
+    public SSLContext getSslContext() {
+        getSocketFactory();
+        return sslContext;
+    }
+
+    public SSLConnectionSocketFactory getSocketFactory() {
+        SSLConnectionSocketFactory factory = socketFactory;
+        if (factory == null) {
+            synchronized (this) {
+                factory = socketFactory;
+                if (factory == null) {
+                    sslContext = buildContext();
+                    String[] protocols = enabledProtocols(sslContext);
+                    logger.info("ssl context initialized, protocols: " + Arrays.toString(protocols));
+                    factory = new SSLConnectionSocketFactory(sslContext, protocols, null,
+                            SSLConnectionSocketFactory.getDefaultHostnameVerifier());
+                    socketFactory = factory;
+                }
+            }
+        }
+        return factory;
+    }
+
+    private SSLContext buildContext() {
+        try {
+            SSLContextBuilder builder = SSLContexts.custom();
+            if (trustStorePath != null && !new File(trustStorePath).isFile()) {
+                logger.warn("trust store '" + trustStorePath + "' not found, fall back to the default jvm trust");
+            } else if (trustStorePath != null) {
+                KeyStore trustStore = KeyStore.getInstance(KeyStore.getDefaultType());
+                try (InputStream in = new FileInputStream(trustStorePath)) {
+                    trustStore.load(in, trustStorePassword);
+                }
+                // 相信自己的CA和所有自签名的证书
+                builder.loadTrustMaterial(trustStore, new TrustSelfSignedStrategy());
+            }
+            SSLContext context = builder.build();
+            SSLSessionContext sessions = context.getClientSessionContext();
+            sessions.setSessionCacheSize(SESSION_CACHE_SIZE);
+            sessions.setSessionTimeout(SESSION_TIMEOUT_SECONDS);
+            return context;
+        } catch (IOException | GeneralSecurityException e) {
+            throw new IllegalStateException("error when loading trust store '" + trustStorePath + "'", e);
+        }
+    }
+
+    private static String[] enabledProtocols(SSLContext context) {
+        List<String> supported = Arrays.asList(context.getSupportedSSLParameters().getProtocols());
+        List<String> enabled = new ArrayList<>();
+        for (String protocol : PREFERRED_PROTOCOLS) {
+            if (supported.contains(protocol)) {
+                enabled.add(protocol);
+            }
+        }
+        return enabled.toArray(new String[enabled.size()]);
+    }
+
+    @Override
+    public Socket createSocket(HttpContext context) throws IOException {
+        return getSocketFactory().createSocket(context);
+    }
+
+    @Override
+    public Socket connectSocket(int connectTimeout, Socket sock, HttpHost host, InetSocketAddress remoteAddress,
+                                InetSocketAddress localAddress, HttpContext context) throws IOException {
+        return getSocketFactory().connectSocket(connectTimeout, sock, host, remoteAddress, localAddress, context);
+    }
+
+    @Override
+    public Socket createLayeredSocket(Socket socket, String target, int port, HttpContext context)
+            throws IOException {
+        return getSocketFactory().createLayeredSocket(socket, target, port, context);
+    }
+}
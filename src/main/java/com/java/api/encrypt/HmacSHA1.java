@@ -1,12 +1,10 @@
 package com.java.api.encrypt;
 
 import org.apache.commons.codec.binary.Base64;
-import org.apache.commons.codec.binary.Hex;
-
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
 
 /**
+ * NOTE: the Mac of a key is reused through HmacSigner, see there for buffer and batch signing
+ * <p>
  * Created by kevintian on 2017/9/28.
  */
 public class HmacSHA1 {
@@ -16,18 +14,12 @@ public class HmacSHA1 {
         String sign = getHmacSHA1(key, content);
         String signEncode = Base64.encodeBase64URLSafeString(sign.getBytes());
         System.out.println(signEncode);
+        TokenVerifier verifier = new TokenVerifier(HmacSigner.forKey(HmacSigner.HMAC_SHA1, key), 10000);
+        // signed with a 2017 deadline: a good signature, but expired now
+        System.out.println(verifier.verify(signEncode + ":" + content));
     }
 
     private static String getHmacSHA1(String key, String content) {
-        SecretKeySpec keySpec = new SecretKeySpec(key.getBytes(), "HmacSHA1");
-        Mac mac;
-        try {
-            mac = Mac.getInstance("HmacSHA1");
-            mac.init(keySpec);
-        } catch (Exception e) {//should never occur
-            throw new IllegalStateException("unexpected", e);
-        }
-        byte[] macBytes = mac.doFinal(content.getBytes());
-        return new String(Hex.encodeHex(macBytes));
+        return HmacSigner.forKey(HmacSigner.HMAC_SHA1, key).signHex(content);
     }
 }
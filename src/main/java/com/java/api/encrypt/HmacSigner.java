@@ -0,0 +1,192 @@
+package com.java.api.encrypt;
+
+import org.apache.commons.codec.binary.Base64;
+import org.apache.commons.codec.binary.Hex;
+
+import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+/**
+ * HMAC signer for one (algorithm, key), reusing its Mac per thread
+ * <p>
+ * vs Mac.getInstance(...) + mac.init(...) per signature:
+ * 1. provider lookup and key setup run once per thread, a signature is update + doFinal on a ready Mac
+ * 2. sign(ByteBuffer, ByteBuffer) reads and writes caller buffers, through a per-thread scratch array for direct
+ * ones: no byte[] of its own per call(the jdk's Mac still allocates internally in doFinal)
+ * 3. signAll/signAllParallel sign many contents in one call; in parallel every worker thread uses its own Mac
+ * <p>
+ * NOTE:
+ * 1. algorithms: HmacSHA1, HmacSHA256, HmacSHA512(see the constants)
+ * 2. forKey(...) keeps one signer per (algorithm, key) for the life of the jvm: use it for the few service keys,
+ * create signers directly for per-user keys
+ * 3. thread-safe
+ */
+public class HmacSigner {
+    public static final String HMAC_SHA1 = "HmacSHA1";
+    public static final String HMAC_SHA256 = "HmacSHA256";
+    public static final String HMAC_SHA512 = "HmacSHA512";
+
+    private static final ConcurrentMap<String, HmacSigner> SIGNERS = new ConcurrentHashMap<>();
+
+    private final String algorithm;
+    private final SecretKeySpec keySpec;
+    private final int macLength;
+    private final ThreadLocal<ThreadMac> macs = new ThreadLocal<ThreadMac>() {
+        @Override
+        protected ThreadMac initialValue() {
+            return new ThreadMac(newMac());
+        }
+    };
+
+    /**
+     * @throws IllegalArgumentException unknown algorithm or unusable key
+     */
+    public HmacSigner(String algorithm, byte[] key) {
+        this.algorithm = algorithm;
+        this.keySpec = new SecretKeySpec(key, algorithm);
+        // fail fast on a bad algorithm/key, and keep the Mac for this thread
+        Mac mac = newMac();
+        this.macLength = mac.getMacLength();
+        macs.set(new ThreadMac(mac));
+    }
+
+    /**
+     * shared signer of (algorithm, key), key as utf-8
+     */
+    public static HmacSigner forKey(String algorithm, String key) {
+        String id = algorithm + ':' + key;
+        HmacSigner signer = SIGNERS.get(id);
+        if (signer == null) {
+            HmacSigner created = new HmacSigner(algorithm, key.getBytes(StandardCharsets.UTF_8));
+            signer = SIGNERS.putIfAbsent(id, created);
+            if (signer == null) {
+                signer = created;
+            }
+        }
+        return signer;
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(algorithm);
+            mac.init(keySpec);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException("can't create " + algorithm, e);
+        }
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * signature length in bytes: 20 for HmacSHA1, 32 for HmacSHA256, 64 for HmacSHA512
+     */
+    public int getMacLength() {
+        return macLength;
+    }
+
+    public byte[] sign(byte[] content) {
+        return macs.get().mac.doFinal(content);
+    }
+
+    /**
+     * sign the remaining bytes of content into out
+     * <p>
+     * NOTE: content is consumed(position = limit), out advances by getMacLength()
+     *
+     * @return getMacLength()
+     * @throws BufferOverflowException out has less than getMacLength() bytes remaining
+     */
+    public int sign(ByteBuffer content, ByteBuffer out) {
+        if (out.remaining() < macLength) {
+            throw new BufferOverflowException();
+        }
+        ThreadMac threadMac = macs.get();
+        Mac mac = threadMac.mac;
+        mac.update(content);
+        try {
+            if (out.hasArray()) {
+                mac.doFinal(out.array(), out.arrayOffset() + out.position());
+                out.position(out.position() + macLength);
+            } else {
+                // a direct buffer: through the per-thread scratch array
+                mac.doFinal(threadMac.scratch, 0);
+                out.put(threadMac.scratch);
+            }
+        } catch (ShortBufferException e) {
+            // checked above
+            throw new IllegalStateException(e);
+        }
+        return macLength;
+    }
+
+    /**
+     * lowercase hex of the signature of the utf-8 content
+     */
+    public String signHex(String content) {
+        return new String(Hex.encodeHex(sign(content.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    /**
+     * url-safe base64 of the hex signature, the token format of HmacSHA1.main
+     */
+    public String signToken(String content) {
+        return token(sign(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * url-safe base64 of the hex of a raw signature
+     */
+    static String token(byte[] signature) {
+        char[] hex = Hex.encodeHex(signature);
+        byte[] ascii = new byte[hex.length];
+        for (int i = 0; i < hex.length; i++) {
+            ascii[i] = (byte) hex[i];
+        }
+        return Base64.encodeBase64URLSafeString(ascii);
+    }
+
+    /**
+     * sign contents in the calling thread, with one Mac
+     */
+    public List<byte[]> signAll(List<byte[]> contents) {
+        Mac mac = macs.get().mac;
+        List<byte[]> signatures = new ArrayList<>(contents.size());
+        for (byte[] content : contents) {
+            signatures.add(mac.doFinal(content));
+        }
+        return signatures;
+    }
+
+    /**
+     * signToken(...) of every content on the common fork-join pool, results in the order of contents
+     */
+    public List<String> signAllParallel(List<String> contents) {
+        return contents.parallelStream().map(this::signToken).collect(Collectors.toList());
+    }
+
+    /**
+     * Mac of one thread, with a scratch array for signatures written to direct buffers
+     */
+    private static final class ThreadMac {
+        final Mac mac;
+        final byte[] scratch;
+
+        ThreadMac(Mac mac) {
+            this.mac = mac;
+            this.scratch = new byte[mac.getMacLength()];
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.java.api.encrypt;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * the signed json of a token: {"scope":"...","deadline":1506621423}
+ * <p>
+ * deadline: unix time in seconds, the token is valid strictly before it
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class TokenPayload {
+    String scope;
+    long deadline;
+
+    public String getScope() {
+        return scope;
+    }
+
+    public void setScope(String scope) {
+        this.scope = scope;
+    }
+
+    public long getDeadline() {
+        return deadline;
+    }
+
+    public void setDeadline(long deadline) {
+        this.deadline = deadline;
+    }
+
+    @Override
+    public String toString() {
+        return "TokenPayload{scope=" + scope + ", deadline=" + deadline + "}";
+    }
+}
@@ -0,0 +1,224 @@
+package com.java.api.encrypt;
+
+import com.java.api.jackson.JsonMappers;
+import org.apache.commons.codec.binary.Base64;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * verifies the tokens signed like HmacSHA1.main: "&lt;sign&gt;:&lt;payload&gt;"
+ * 1. payload: url-safe base64 of the json TokenPayload(scope, deadline)
+ * 2. sign: url-safe base64 of the hex HMAC of the payload(HmacSigner.signToken)
+ * <p>
+ * POINTS:
+ * 1. the signature is compared in constant time(MessageDigest.isEqual), a mismatch doesn't tell where it differs
+ * 2. a VALID result is cached by token until its deadline, so a hot token costs one hash lookup, not an HMAC +
+ * base64 + json parse; failures are not cached(a forged token can't take cache room)
+ * 3. at most maxEntries tokens are cached: a full cache first drops its expired entries, then arbitrary ones
+ * 4. verifyAll(tokens): the uncached tokens of a batch are signed with ONE Mac of the calling thread
+ * (HmacSigner.signAll), the comparison is the same constant-time one
+ * <p>
+ * NOTE: thread-safe
+ */
+public class TokenVerifier {
+    static final Logger logger = Logger.getLogger(TokenVerifier.class);
+
+    public enum Status {
+        VALID, EXPIRED, BAD_SIGNATURE, MALFORMED
+    }
+
+    /**
+     * status + payload(null unless the payload could be parsed)
+     */
+    public static final class Verification {
+        private final Status status;
+        private final TokenPayload payload;
+
+        Verification(Status status, TokenPayload payload) {
+            this.status = status;
+            this.payload = payload;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public TokenPayload getPayload() {
+            return payload;
+        }
+
+        public boolean isValid() {
+            return status == Status.VALID;
+        }
+
+        @Override
+        public String toString() {
+            return status + (payload == null ? "" : " " + payload);
+        }
+    }
+
+    private static final Verification MALFORMED = new Verification(Status.MALFORMED, null);
+
+    private final HmacSigner signer;
+    private final int maxEntries;
+    private final ConcurrentHashMap<String, Verification> cache;
+
+    /**
+     * @param maxEntries max number of cached VALID results, positive
+     */
+    public TokenVerifier(HmacSigner signer, int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive: " + maxEntries);
+        }
+        this.signer = signer;
+        this.maxEntries = maxEntries;
+        this.cache = new ConcurrentHashMap<>(Math.min(maxEntries, 1024));
+    }
+
+    public Verification verify(String token) {
+        return verify(token, TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis()));
+    }
+
+    /**
+     * @param nowSeconds unix time in seconds
+     */
+    public Verification verify(String token, long nowSeconds) {
+        Verification cached = cached(token, nowSeconds);
+        if (cached != null) {
+            return cached;
+        }
+        int colon = split(token);
+        if (colon < 0) {
+            return MALFORMED;
+        }
+        String payloadText = token.substring(colon + 1);
+        return check(token, colon, signer.sign(payloadText.getBytes(StandardCharsets.UTF_8)), nowSeconds);
+    }
+
+    public List<Verification> verifyAll(List<String> tokens) {
+        return verifyAll(tokens, TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis()));
+    }
+
+    /**
+     * verify(...) of every token, the HMACs of the uncached ones computed in one pass with one Mac
+     *
+     * @return results in the order of tokens
+     */
+    public List<Verification> verifyAll(List<String> tokens, long nowSeconds) {
+        Verification[] results = new Verification[tokens.size()];
+        int[] pending = new int[tokens.size()];
+        int[] colons = new int[tokens.size()];
+        List<byte[]> payloads = new ArrayList<>();
+        for (int i = 0; i < results.length; i++) {
+            String token = tokens.get(i);
+            results[i] = cached(token, nowSeconds);
+            if (results[i] != null) {
+                continue;
+            }
+            int colon = split(token);
+            if (colon < 0) {
+                results[i] = MALFORMED;
+                continue;
+            }
+            pending[payloads.size()] = i;
+            colons[payloads.size()] = colon;
+            payloads.add(token.substring(colon + 1).getBytes(StandardCharsets.UTF_8));
+        }
+        List<byte[]> signatures = signer.signAll(payloads);
+        for (int j = 0; j < signatures.size(); j++) {
+            int i = pending[j];
+            results[i] = check(tokens.get(i), colons[j], signatures.get(j), nowSeconds);
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * @return cached VALID result, EXPIRED if it expired since, null on a miss
+     */
+    private Verification cached(String token, long nowSeconds) {
+        Verification cached = cache.get(token);
+        if (cached == null) {
+            return null;
+        }
+        if (nowSeconds < cached.payload.deadline) {
+            return cached;
+        }
+        cache.remove(token, cached);
+        return new Verification(Status.EXPIRED, cached.payload);
+    }
+
+    /**
+     * @return index of the colon between sign and payload, -1 if malformed
+     */
+    private static int split(String token) {
+        int colon = token.lastIndexOf(':');
+        return colon <= 0 || colon == token.length() - 1 ? -1 : colon;
+    }
+
+    /**
+     * @param signature raw HMAC of the payload part
+     */
+    private Verification check(String token, int colon, byte[] signature, long nowSeconds) {
+        byte[] expected = HmacSigner.token(signature).getBytes(StandardCharsets.US_ASCII);
+        if (!MessageDigest.isEqual(expected, token.substring(0, colon).getBytes(StandardCharsets.US_ASCII))) {
+            return new Verification(Status.BAD_SIGNATURE, null);
+        }
+        String payloadText = token.substring(colon + 1);
+        TokenPayload payload;
+        try {
+            payload = JsonMappers.reader(TokenPayload.class).readValue(Base64.decodeBase64(payloadText));
+        } catch (IOException e) {
+            logger.warn("signed token with an unreadable payload: " + payloadText, e);
+            return MALFORMED;
+        }
+        if (payload == null) {
+            logger.warn("signed token with a null payload: " + payloadText);
+            return MALFORMED;
+        }
+        if (nowSeconds >= payload.deadline) {
+            return new Verification(Status.EXPIRED, payload);
+        }
+        Verification valid = new Verification(Status.VALID, payload);
+        if (cache.size() >= maxEntries) {
+            evict(nowSeconds);
+        }
+        cache.put(token, valid);
+        return valid;
+    }
+
+    /**
+     * drop the expired entries; if that frees less than a quarter of the cache, drop arbitrary ones too, so the
+     * next evictions are not back-to-back
+     */
+    private synchronized void evict(long nowSeconds) {
+        if (cache.size() < maxEntries) {
+            return;
+        }
+        Iterator<Map.Entry<String, Verification>> itr = cache.entrySet().iterator();
+        while (itr.hasNext()) {
+            if (nowSeconds >= itr.next().getValue().payload.deadline) {
+                itr.remove();
+            }
+        }
+        int target = maxEntries - maxEntries / 4 - 1;
+        itr = cache.entrySet().iterator();
+        while (cache.size() > target && itr.hasNext()) {
+            itr.next();
+            itr.remove();
+        }
+    }
+
+    public int cacheSize() {
+        return cache.size();
+    }
+}
@@ -0,0 +1,623 @@
+package com.java.api.guava.ranges;
+
+import com.google.common.collect.DiscreteDomain;
+import com.google.common.collect.Range;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * roaring-style compressed bitmap of non-negative ints(ids), built from ranges, convertible back to ranges
+ * <p>
+ * STRUCTURE:
+ * the high 16 bits of a value pick a container(sorted char[] keys), the low 16 bits live in it as
+ * 1. ARRAY: sorted char[] of the values, 2 bytes per value
+ * 2. BITMAP: long[1024], 8KB for any 1..65536 values
+ * 3. RUN: char[] {start0, end0, start1, end1, ...}, 4 bytes per run
+ * every container takes the smallest of the three forms, so a range of 100M ids is 1526 one-run containers,
+ * 4 bytes of run + 2 bytes of key each(~9KB), and scattered ids cost 2 bytes each.
+ * <p>
+ * vs ContiguousSet + Set operations on Integer:
+ * 1. and/or/andNot work container by container: array x array is a merge, run x run a range merge, the rest
+ * 64 values per long operation; nothing is boxed
+ * 2. contains is two binary searches at most, cardinality sums the containers
+ * 3. toRangeSet() detects runs and returns the ids as a LongRangeSet
+ * <p>
+ * NOTE: immutable and thread-safe; values must be in [0, Integer.MAX_VALUE]
+ */
+public final class CompressedBitmap {
+    public static final CompressedBitmap EMPTY = new CompressedBitmap(new char[0], new Container[0]);
+
+    private static final int ARRAY_MAX = 4096;
+    private static final int BITMAP_BYTES = 8192;
+
+    private final char[] keys;
+    private final Container[] containers;
+
+    private CompressedBitmap(char[] keys, Container[] containers) {
+        this.keys = keys;
+        this.containers = containers;
+    }
+
+    // ---------------- creation ----------------
+
+    /**
+     * @throws IllegalArgumentException a value is negative or beyond Integer.MAX_VALUE
+     */
+    public static CompressedBitmap of(LongRangeSet ranges) {
+        if (ranges.isEmpty()) {
+            return EMPTY;
+        }
+        if (ranges.lower(0) < 0 || ranges.upper(ranges.rangeCount() - 1) > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("values out of [0, Integer.MAX_VALUE]: " + ranges);
+        }
+        Assembler assembler = new Assembler();
+        char[] runs = new char[16];
+        int n = 0;
+        int key = -1;
+        for (int r = 0; r < ranges.rangeCount(); r++) {
+            long lo = ranges.lower(r);
+            long hi = ranges.upper(r);
+            // split at container boundaries
+            while (lo <= hi) {
+                int high = (int) (lo >>> 16);
+                long end = Math.min(hi, ((long) high << 16) | 0xFFFF);
+                if (high != key) {
+                    if (n > 0) {
+                        assembler.add(key, fromRuns(runs, n));
+                    }
+                    key = high;
+                    n = 0;
+                }
+                if (n + 2 > runs.length) {
+                    runs = Arrays.copyOf(runs, runs.length * 2);
+                }
+                runs[n++] = (char) lo;
+                runs[n++] = (char) end;
+                lo = end + 1;
+            }
+        }
+        assembler.add(key, fromRuns(runs, n));
+        return assembler.build();
+    }
+
+    /**
+     * e.g. ranges made by RangeDemo.createRange(...)
+     */
+    public static CompressedBitmap of(Iterable<Range<Integer>> ranges) {
+        LongRangeSet.Builder builder = LongRangeSet.builder();
+        for (Range<Integer> range : ranges) {
+            Range<Integer> closedOpen = range.canonical(DiscreteDomain.integers());
+            if (!closedOpen.isEmpty()) {
+                builder.add(closedOpen.lowerEndpoint(),
+                        closedOpen.hasUpperBound() ? closedOpen.upperEndpoint() - 1L : Integer.MAX_VALUE);
+            }
+        }
+        return of(builder.build());
+    }
+
+    /**
+     * values in any order, duplicates allowed
+     */
+    public static CompressedBitmap of(int... values) {
+        int[] sorted = values.clone();
+        Arrays.sort(sorted);
+        if (sorted.length > 0 && sorted[0] < 0) {
+            throw new IllegalArgumentException("negative value: " + sorted[0]);
+        }
+        Assembler assembler = new Assembler();
+        int i = 0;
+        while (i < sorted.length) {
+            int high = sorted[i] >>> 16;
+            long[] words = new long[1024];
+            for (; i < sorted.length && sorted[i] >>> 16 == high; i++) {
+                words[(sorted[i] & 0xFFFF) >>> 6] |= 1L << sorted[i];
+            }
+            assembler.add(high, fromWords(words));
+        }
+        return assembler.build();
+    }
+
+    // ---------------- queries ----------------
+
+    public boolean contains(int value) {
+        if (value < 0) {
+            return false;
+        }
+        int i = Arrays.binarySearch(keys, (char) (value >>> 16));
+        return i >= 0 && containers[i].contains((char) value);
+    }
+
+    public long cardinality() {
+        long count = 0;
+        for (Container c : containers) {
+            count += c.cardinality();
+        }
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return keys.length == 0;
+    }
+
+    /**
+     * approximate heap size of the containers, in bytes
+     */
+    public long sizeInBytes() {
+        long bytes = keys.length * 2L;
+        for (Container c : containers) {
+            bytes += c.sizeInBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * visit the values in ascending order
+     */
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < keys.length; i++) {
+            containers[i].forEach(keys[i] << 16, action);
+        }
+    }
+
+    /**
+     * back to ranges: the runs of the containers, joined across container boundaries
+     */
+    public LongRangeSet toRangeSet() {
+        long[] bounds = new long[16];
+        int n = 0;
+        for (int i = 0; i < keys.length; i++) {
+            char[] runs = containers[i].runs();
+            long base = (long) keys[i] << 16;
+            for (int r = 0; r < runs.length; r += 2) {
+                long lo = base + runs[r];
+                long hi = base + runs[r + 1];
+                if (n > 0 && bounds[n - 1] + 1 == lo) {
+                    bounds[n - 1] = hi;
+                } else {
+                    if (n + 2 > bounds.length) {
+                        bounds = Arrays.copyOf(bounds, bounds.length * 2);
+                    }
+                    bounds[n++] = lo;
+                    bounds[n++] = hi;
+                }
+            }
+        }
+        return LongRangeSet.ofSortedBounds(Arrays.copyOf(bounds, n));
+    }
+
+    // ---------------- set operations ----------------
+
+    private static final int AND = 0, OR = 1, AND_NOT = 2;
+
+    public CompressedBitmap and(CompressedBitmap other) {
+        return merge(other, AND);
+    }
+
+    public CompressedBitmap or(CompressedBitmap other) {
+        return merge(other, OR);
+    }
+
+    public CompressedBitmap andNot(CompressedBitmap other) {
+        return merge(other, AND_NOT);
+    }
+
+    /**
+     * merge the sorted keys: a key of one side only is kept as is(or, and-not) or dropped(and)
+     */
+    private CompressedBitmap merge(CompressedBitmap other, int op) {
+        Assembler assembler = new Assembler();
+        int i = 0;
+        int j = 0;
+        while (i < keys.length || j < other.keys.length) {
+            int a = i < keys.length ? keys[i] : Integer.MAX_VALUE;
+            int b = j < other.keys.length ? other.keys[j] : Integer.MAX_VALUE;
+            if (a == b) {
+                assembler.add(a, apply(containers[i++], other.containers[j++], op));
+            } else if (a < b) {
+                if (op != AND) {
+                    assembler.add(a, containers[i]);
+                }
+                i++;
+            } else {
+                if (op == OR) {
+                    assembler.add(b, other.containers[j]);
+                }
+                j++;
+            }
+        }
+        return assembler.build();
+    }
+
+    /**
+     * @return the result container, null if empty
+     */
+    private static Container apply(Container x, Container y, int op) {
+        if (x instanceof ArrayContainer && op != OR) {
+            // and/and-not of an array: keep the values that are(not) in y
+            char[] values = ((ArrayContainer) x).values;
+            char[] out = new char[values.length];
+            int n = 0;
+            for (char v : values) {
+                if (y.contains(v) == (op == AND)) {
+                    out[n++] = v;
+                }
+            }
+            return n == 0 ? null : new ArrayContainer(Arrays.copyOf(out, n));
+        }
+        if (y instanceof ArrayContainer && op == AND) {
+            return apply(y, x, AND);
+        }
+        if (x instanceof RunContainer && y instanceof RunContainer) {
+            LongRangeSet a = ((RunContainer) x).toRangeSet();
+            LongRangeSet b = ((RunContainer) y).toRangeSet();
+            LongRangeSet result = op == AND ? a.intersection(b) : op == OR ? a.union(b) : a.difference(b);
+            char[] runs = new char[result.rangeCount() * 2];
+            for (int r = 0; r < result.rangeCount(); r++) {
+                runs[2 * r] = (char) result.lower(r);
+                runs[2 * r + 1] = (char) result.upper(r);
+            }
+            return fromRuns(runs, runs.length);
+        }
+        // 64 values per step
+        long[] words = x.words();
+        long[] other = y.words();
+        for (int w = 0; w < 1024; w++) {
+            words[w] = op == AND ? words[w] & other[w] : op == OR ? words[w] | other[w] : words[w] & ~other[w];
+        }
+        return fromWords(words);
+    }
+
+    // ---------------- container choice ----------------
+
+    /**
+     * smallest container for the bits, null if none is set
+     */
+    private static Container fromWords(long[] words) {
+        int cardinality = 0;
+        int runCount = 0;
+        long previous = 0;
+        for (long word : words) {
+            cardinality += Long.bitCount(word);
+            // a run starts where a bit is set and the bit below it is not
+            runCount += Long.bitCount(word & ~((word << 1) | (previous >>> 63)));
+            previous = word;
+        }
+        if (cardinality == 0) {
+            return null;
+        }
+        int arrayBytes = 2 * cardinality;
+        int runBytes = 4 * runCount;
+        if (runBytes <= arrayBytes && runBytes <= BITMAP_BYTES) {
+            return new RunContainer(BitmapContainer.runs(words, runCount));
+        }
+        if (cardinality <= ARRAY_MAX) {
+            return new ArrayContainer(BitmapContainer.values(words, cardinality));
+        }
+        return new BitmapContainer(words, cardinality);
+    }
+
+    /**
+     * smallest container for n/2 sorted, disjoint runs
+     */
+    private static Container fromRuns(char[] runs, int n) {
+        if (n == 0) {
+            return null;
+        }
+        int cardinality = 0;
+        for (int r = 0; r < n; r += 2) {
+            cardinality += runs[r + 1] - runs[r] + 1;
+        }
+        if (2 * n <= 2 * cardinality && 2 * n <= BITMAP_BYTES) {
+            return new RunContainer(Arrays.copyOf(runs, n));
+        }
+        return fromWords(RunContainer.words(runs, n));
+    }
+
+    /**
+     * collects (key, container) pairs in ascending key order, skipping empty containers
+     */
+    private static final class Assembler {
+        private char[] keys = new char[8];
+        private Container[] containers = new Container[8];
+        private int n;
+
+        void add(int key, Container container) {
+            if (container == null) {
+                return;
+            }
+            if (n == keys.length) {
+                keys = Arrays.copyOf(keys, n * 2);
+                containers = Arrays.copyOf(containers, n * 2);
+            }
+            keys[n] = (char) key;
+            containers[n++] = container;
+        }
+
+        CompressedBitmap build() {
+            return n == 0 ? EMPTY : new CompressedBitmap(Arrays.copyOf(keys, n), Arrays.copyOf(containers, n));
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        // containers are always in their smallest form, but equal sets may still pick different forms on ties
+        return o instanceof CompressedBitmap && toRangeSet().equals(((CompressedBitmap) o).toRangeSet());
+    }
+
+    @Override
+    public int hashCode() {
+        return toRangeSet().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return toRangeSet().toString();
+    }
+
+    // ---------------- containers, low 16 bits ----------------
+
+    private abstract static class Container {
+        abstract boolean contains(char low);
+
+        abstract int cardinality();
+
+        abstract int sizeInBytes();
+
+        /**
+         * a fresh long[1024] copy of the bits
+         */
+        abstract long[] words();
+
+        /**
+         * {start0, end0, start1, end1, ...}
+         */
+        abstract char[] runs();
+
+        abstract void forEach(int base, IntConsumer action);
+    }
+
+    private static final class ArrayContainer extends Container {
+        final char[] values;
+
+        ArrayContainer(char[] values) {
+            this.values = values;
+        }
+
+        @Override
+        boolean contains(char low) {
+            return Arrays.binarySearch(values, low) >= 0;
+        }
+
+        @Override
+        int cardinality() {
+            return values.length;
+        }
+
+        @Override
+        int sizeInBytes() {
+            return 2 * values.length;
+        }
+
+        @Override
+        long[] words() {
+            long[] words = new long[1024];
+            for (char v : values) {
+                words[v >>> 6] |= 1L << v;
+            }
+            return words;
+        }
+
+        @Override
+        char[] runs() {
+            char[] runs = new char[2 * values.length];
+            int n = 0;
+            for (int i = 0; i < values.length; i++) {
+                if (n > 0 && runs[n - 1] + 1 == values[i]) {
+                    runs[n - 1] = values[i];
+                } else {
+                    runs[n++] = values[i];
+                    runs[n++] = values[i];
+                }
+            }
+            return Arrays.copyOf(runs, n);
+        }
+
+        @Override
+        void forEach(int base, IntConsumer action) {
+            for (char v : values) {
+                action.accept(base | v);
+            }
+        }
+    }
+
+    private static final class BitmapContainer extends Container {
+        final long[] words;
+        final int cardinality;
+
+        BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        boolean contains(char low) {
+            return (words[low >>> 6] & (1L << low)) != 0;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        int sizeInBytes() {
+            return BITMAP_BYTES;
+        }
+
+        @Override
+        long[] words() {
+            return words.clone();
+        }
+
+        @Override
+        char[] runs() {
+            long previous = 0;
+            int runCount = 0;
+            for (long word : words) {
+                runCount += Long.bitCount(word & ~((word << 1) | (previous >>> 63)));
+                previous = word;
+            }
+            return runs(words, runCount);
+        }
+
+        static char[] runs(long[] words, int runCount) {
+            char[] runs = new char[2 * runCount];
+            int n = 0;
+            int i = nextSet(words, 0);
+            while (i >= 0) {
+                int end = nextClear(words, i);
+                runs[n++] = (char) i;
+                runs[n++] = (char) (end - 1);
+                i = end >= 65536 ? -1 : nextSet(words, end);
+            }
+            return runs;
+        }
+
+        static char[] values(long[] words, int cardinality) {
+            char[] values = new char[cardinality];
+            int n = 0;
+            for (int w = 0; w < words.length; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    values[n++] = (char) ((w << 6) + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            return values;
+        }
+
+        private static int nextSet(long[] words, int from) {
+            int w = from >>> 6;
+            long word = words[w] & (-1L << from);
+            while (word == 0) {
+                if (++w == words.length) {
+                    return -1;
+                }
+                word = words[w];
+            }
+            return (w << 6) + Long.numberOfTrailingZeros(word);
+        }
+
+        private static int nextClear(long[] words, int from) {
+            int w = from >>> 6;
+            long word = ~words[w] & (-1L << from);
+            while (word == 0) {
+                if (++w == words.length) {
+                    return 65536;
+                }
+                word = ~words[w];
+            }
+            return (w << 6) + Long.numberOfTrailingZeros(word);
+        }
+
+        @Override
+        void forEach(int base, IntConsumer action) {
+            for (int w = 0; w < words.length; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    action.accept(base | ((w << 6) + Long.numberOfTrailingZeros(word)));
+                    word &= word - 1;
+                }
+            }
+        }
+    }
+
+    private static final class RunContainer extends Container {
+        final char[] runs;
+
+        RunContainer(char[] runs) {
+            this.runs = runs;
+        }
+
+        @Override
+        boolean contains(char low) {
+            // last run starting at or before low
+            int lo = 0;
+            int hi = runs.length / 2 - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                if (runs[2 * mid] <= low) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid - 1;
+                }
+            }
+            return hi >= 0 && low <= runs[2 * hi + 1];
+        }
+
+        @Override
+        int cardinality() {
+            int cardinality = 0;
+            for (int r = 0; r < runs.length; r += 2) {
+                cardinality += runs[r + 1] - runs[r] + 1;
+            }
+            return cardinality;
+        }
+
+        @Override
+        int sizeInBytes() {
+            return 2 * runs.length;
+        }
+
+        @Override
+        long[] words() {
+            return words(runs, runs.length);
+        }
+
+        static long[] words(char[] runs, int n) {
+            long[] words = new long[1024];
+            for (int r = 0; r < n; r += 2) {
+                int start = runs[r];
+                int end = runs[r + 1] + 1;
+                int first = start >>> 6;
+                int last = (end - 1) >>> 6;
+                if (first == last) {
+                    words[first] |= (-1L << start) & (-1L >>> -end);
+                } else {
+                    words[first] |= -1L << start;
+                    for (int w = first + 1; w < last; w++) {
+                        words[w] = -1L;
+                    }
+                    words[last] |= -1L >>> -end;
+                }
+            }
+            return words;
+        }
+
+        @Override
+        char[] runs() {
+            return runs;
+        }
+
+        LongRangeSet toRangeSet() {
+            long[] bounds = new long[runs.length];
+            for (int i = 0; i < runs.length; i++) {
+                bounds[i] = runs[i];
+            }
+            return LongRangeSet.ofSortedBounds(bounds);
+        }
+
+        @Override
+        void forEach(int base, IntConsumer action) {
+            for (int r = 0; r < runs.length; r += 2) {
+                for (int v = runs[r]; v <= runs[r + 1]; v++) {
+                    action.accept(base | v);
+                }
+            }
+        }
+    }
+}
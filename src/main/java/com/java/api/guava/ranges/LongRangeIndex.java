@@ -0,0 +1,167 @@
+package com.java.api.guava.ranges;
+
+import com.google.common.collect.BoundType;
+import com.google.common.collect.Range;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * RangeIndex for long points(ids, ip addresses, epoch millis): boundaries in a long[], no boxing per query
+ * <p>
+ * STRUCTURE:
+ * every range is made closed first([lo, hi], longs are discrete), the distinct starts b0 < b1 < ... of the
+ * pieces are the lo's and hi + 1's, piece k = [b(k-1), b(k)), piece 0 = everything below b0.
+ * <p>
+ * NOTE: see RangeIndex, the same notes apply
+ *
+ * @param <V> value attached to each range
+ */
+public final class LongRangeIndex<V> {
+    private final long[] bounds;
+    private final List<V>[] pieces;
+    private final int size;
+
+    private LongRangeIndex(long[] bounds, List<V>[] pieces, int size) {
+        this.bounds = bounds;
+        this.pieces = pieces;
+        this.size = size;
+    }
+
+    public static <V> Builder<V> builder() {
+        return new Builder<>();
+    }
+
+    private int piece(long point) {
+        int j = Arrays.binarySearch(bounds, point);
+        return j >= 0 ? j + 1 : -(j + 1);
+    }
+
+    public List<V> get(long point) {
+        return pieces[piece(point)];
+    }
+
+    public V first(long point) {
+        List<V> values = get(point);
+        return values.isEmpty() ? null : values.get(0);
+    }
+
+    public boolean contains(long point) {
+        return !get(point).isEmpty();
+    }
+
+    /**
+     * classify ascending points walking the boundaries once: O(points + bounds)
+     *
+     * @throws IllegalArgumentException points are not sorted
+     */
+    public void forEachSorted(long[] sortedPoints, ObjLongConsumer<? super List<V>> action) {
+        int j = 0;
+        for (int i = 0; i < sortedPoints.length; i++) {
+            long point = sortedPoints[i];
+            if (i > 0 && sortedPoints[i - 1] > point) {
+                throw new IllegalArgumentException("points not sorted at " + i);
+            }
+            while (j < bounds.length && bounds[j] <= point) {
+                j++;
+            }
+            action.accept(pieces[j], point);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public static final class Builder<V> {
+        private long[] los = new long[16];
+        private long[] his = new long[16];
+        private final List<V> values = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /**
+         * [lo, hi], empty if lo > hi
+         */
+        public Builder<V> put(long lo, long hi, V value) {
+            if (value == null) {
+                throw new NullPointerException("null value");
+            }
+            int n = values.size();
+            if (n == los.length) {
+                los = Arrays.copyOf(los, n * 2);
+                his = Arrays.copyOf(his, n * 2);
+            }
+            los[n] = lo;
+            his[n] = hi;
+            values.add(value);
+            return this;
+        }
+
+        /**
+         * e.g. a range made by RangeDemo.createRange(...); open ends are moved inwards by one
+         */
+        public Builder<V> put(Range<Long> range, V value) {
+            long lo = Long.MIN_VALUE;
+            long hi = Long.MAX_VALUE;
+            if (range.hasLowerBound()) {
+                lo = range.lowerEndpoint();
+                if (range.lowerBoundType() == BoundType.OPEN) {
+                    if (lo == Long.MAX_VALUE) {
+                        return this;
+                    }
+                    lo++;
+                }
+            }
+            if (range.hasUpperBound()) {
+                hi = range.upperEndpoint();
+                if (range.upperBoundType() == BoundType.OPEN) {
+                    if (hi == Long.MIN_VALUE) {
+                        return this;
+                    }
+                    hi--;
+                }
+            }
+            return put(lo, hi, value);
+        }
+
+        public LongRangeIndex<V> build() {
+            int n = values.size();
+            long[] starts = new long[2 * n];
+            int m = 0;
+            for (int i = 0; i < n; i++) {
+                if (los[i] <= his[i]) {
+                    starts[m++] = los[i];
+                    if (his[i] != Long.MAX_VALUE) {
+                        starts[m++] = his[i] + 1;
+                    }
+                }
+            }
+            Arrays.sort(starts, 0, m);
+            int distinct = 0;
+            for (int i = 0; i < m; i++) {
+                if (distinct == 0 || starts[distinct - 1] != starts[i]) {
+                    starts[distinct++] = starts[i];
+                }
+            }
+            long[] bounds = Arrays.copyOf(starts, distinct);
+            int[] lo = new int[n];
+            int[] hi = new int[n];
+            int size = 0;
+            for (int i = 0; i < n; i++) {
+                if (los[i] <= his[i]) {
+                    lo[i] = Arrays.binarySearch(bounds, los[i]) + 1;
+                    hi[i] = his[i] == Long.MAX_VALUE ? distinct : Arrays.binarySearch(bounds, his[i] + 1);
+                    size++;
+                } else {
+                    lo[i] = 1;
+                    hi[i] = 0;
+                }
+            }
+            return new LongRangeIndex<>(bounds, RangeIndex.sweep(distinct + 1, lo, hi, values), size);
+        }
+    }
+}
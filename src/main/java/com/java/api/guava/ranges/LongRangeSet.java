@@ -0,0 +1,393 @@
+package com.java.api.guava.ranges;
+
+import com.google.common.collect.BoundType;
+import com.google.common.collect.ImmutableRangeSet;
+import com.google.common.collect.Range;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.LongConsumer;
+
+/**
+ * immutable set of longs stored as sorted, disjoint closed ranges
+ * <p>
+ * STRUCTURE: ONE long[] {lo0, hi0, lo1, hi1, ...}, lo0 <= hi0 < hi0 + 1 < lo1 <= hi1 ...(ranges never overlap or
+ * touch, they are merged when built)
+ * <p>
+ * vs Range.intersection/span + ContiguousSet:
+ * 1. union/intersection/difference of sets with thousands of ranges are linear merges of two arrays
+ * 2. a disjoint intersection is an empty set, not an IllegalArgumentException
+ * 3. contains is a binary search, cardinality sums the ranges, forEach visits the values as primitives
+ * <p>
+ * NOTE: ranges from Range&lt;Long&gt; are closed first: open ends move inwards by one, unbounded ends become
+ * Long.MIN_VALUE/MAX_VALUE
+ */
+public final class LongRangeSet implements Iterable<Long> {
+    public static final LongRangeSet EMPTY = new LongRangeSet(new long[0]);
+
+    /**
+     * {lo0, hi0, lo1, hi1, ...}
+     */
+    private final long[] bounds;
+
+    private LongRangeSet(long[] bounds) {
+        this.bounds = bounds;
+    }
+
+    /**
+     * [lo, hi], empty if lo > hi
+     */
+    public static LongRangeSet of(long lo, long hi) {
+        return lo > hi ? EMPTY : new LongRangeSet(new long[]{lo, hi});
+    }
+
+    public static LongRangeSet of(Range<Long> range) {
+        return builder().add(range).build();
+    }
+
+    public static LongRangeSet of(Iterable<Range<Long>> ranges) {
+        Builder builder = builder();
+        for (Range<Long> range : ranges) {
+            builder.add(range);
+        }
+        return builder.build();
+    }
+
+    /**
+     * trusts that bounds are sorted, disjoint and non-touching {lo, hi} pairs, e.g. the runs of a bitmap
+     */
+    static LongRangeSet ofSortedBounds(long[] bounds) {
+        return bounds.length == 0 ? EMPTY : new LongRangeSet(bounds);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * number of disjoint ranges
+     */
+    public int rangeCount() {
+        return bounds.length >>> 1;
+    }
+
+    public long lower(int range) {
+        return bounds[2 * range];
+    }
+
+    public long upper(int range) {
+        return bounds[2 * range + 1];
+    }
+
+    public boolean isEmpty() {
+        return bounds.length == 0;
+    }
+
+    public boolean contains(long value) {
+        int j = Arrays.binarySearch(bounds, value);
+        // found: value is an endpoint; otherwise it is inside a range iff it falls after a lo(even insertion index)
+        return j >= 0 || ((-(j + 1)) & 1) == 1;
+    }
+
+    /**
+     * number of values
+     *
+     * @throws ArithmeticException more than Long.MAX_VALUE values
+     */
+    public long cardinality() {
+        long count = 0;
+        for (int i = 0; i < bounds.length; i += 2) {
+            count = Math.addExact(count, Math.addExact(Math.subtractExact(bounds[i + 1], bounds[i]), 1));
+        }
+        return count;
+    }
+
+    // ---------------- set operations, linear merges ----------------
+
+    public LongRangeSet union(LongRangeSet other) {
+        long[] a = bounds;
+        long[] b = other.bounds;
+        long[] out = new long[a.length + b.length];
+        int n = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.length || j < b.length) {
+            long lo;
+            long hi;
+            // take the range that starts first
+            if (j >= b.length || (i < a.length && a[i] <= b[j])) {
+                lo = a[i];
+                hi = a[i + 1];
+                i += 2;
+            } else {
+                lo = b[j];
+                hi = b[j + 1];
+                j += 2;
+            }
+            if (n > 0 && (out[n - 1] == Long.MAX_VALUE || lo <= out[n - 1] + 1)) {
+                // overlaps or touches the last output range
+                out[n - 1] = Math.max(out[n - 1], hi);
+            } else {
+                out[n++] = lo;
+                out[n++] = hi;
+            }
+        }
+        return create(out, n);
+    }
+
+    public LongRangeSet intersection(LongRangeSet other) {
+        long[] a = bounds;
+        long[] b = other.bounds;
+        long[] out = new long[a.length + b.length];
+        int n = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.length && j < b.length) {
+            long lo = Math.max(a[i], b[j]);
+            long hi = Math.min(a[i + 1], b[j + 1]);
+            if (lo <= hi) {
+                out[n++] = lo;
+                out[n++] = hi;
+            }
+            // the range that ends first can't meet anything further in the other set
+            if (a[i + 1] < b[j + 1]) {
+                i += 2;
+            } else {
+                j += 2;
+            }
+        }
+        return create(out, n);
+    }
+
+    /**
+     * this minus other
+     */
+    public LongRangeSet difference(LongRangeSet other) {
+        long[] a = bounds;
+        long[] b = other.bounds;
+        // every range of b can split at most one range of a in two
+        long[] out = new long[a.length + b.length];
+        int n = 0;
+        int j = 0;
+        for (int i = 0; i < a.length; i += 2) {
+            long lo = a[i];
+            long hi = a[i + 1];
+            // skip the ranges of b that end before lo
+            while (j < b.length && b[j + 1] < lo) {
+                j += 2;
+            }
+            boolean rest = true;
+            for (int k = j; k < b.length && b[k] <= hi; k += 2) {
+                if (b[k] > lo) {
+                    out[n++] = lo;
+                    out[n++] = b[k] - 1;
+                }
+                if (b[k + 1] >= hi) {
+                    // the rest of [lo, hi] is removed
+                    rest = false;
+                    break;
+                }
+                lo = b[k + 1] + 1;
+            }
+            if (rest) {
+                out[n++] = lo;
+                out[n++] = hi;
+            }
+        }
+        return create(out, n);
+    }
+
+    /**
+     * all longs not in this set
+     */
+    public LongRangeSet complement() {
+        return of(Long.MIN_VALUE, Long.MAX_VALUE).difference(this);
+    }
+
+    private static LongRangeSet create(long[] out, int n) {
+        return n == 0 ? EMPTY : new LongRangeSet(n == out.length ? out : Arrays.copyOf(out, n));
+    }
+
+    // ---------------- iteration ----------------
+
+    public interface RangeConsumer {
+        void accept(long lo, long hi);
+    }
+
+    /**
+     * visit the disjoint ranges in ascending order
+     */
+    public void forEachRange(RangeConsumer action) {
+        for (int i = 0; i < bounds.length; i += 2) {
+            action.accept(bounds[i], bounds[i + 1]);
+        }
+    }
+
+    /**
+     * visit every value in ascending order, as a primitive
+     */
+    public void forEachValue(LongConsumer action) {
+        for (int i = 0; i < bounds.length; i += 2) {
+            long hi = bounds[i + 1];
+            for (long v = bounds[i]; ; v++) {
+                action.accept(v);
+                if (v == hi) {
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * values in ascending order; use nextLong() to avoid boxing
+     */
+    @Override
+    public PrimitiveIterator.OfLong iterator() {
+        return new PrimitiveIterator.OfLong() {
+            private int range;
+            private long next = bounds.length == 0 ? 0 : bounds[0];
+
+            @Override
+            public boolean hasNext() {
+                return range < bounds.length;
+            }
+
+            @Override
+            public long nextLong() {
+                if (range >= bounds.length) {
+                    throw new NoSuchElementException();
+                }
+                long value = next;
+                if (value == bounds[range + 1]) {
+                    range += 2;
+                    if (range < bounds.length) {
+                        next = bounds[range];
+                    }
+                } else {
+                    next++;
+                }
+                return value;
+            }
+        };
+    }
+
+    /**
+     * back to guava, e.g. for printing or for apis that take a RangeSet
+     */
+    public ImmutableRangeSet<Long> toRangeSet() {
+        ImmutableRangeSet.Builder<Long> builder = ImmutableRangeSet.builder();
+        for (int i = 0; i < bounds.length; i += 2) {
+            builder.add(Range.closed(bounds[i], bounds[i + 1]));
+        }
+        return builder.build();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof LongRangeSet && Arrays.equals(bounds, ((LongRangeSet) o).bounds));
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(bounds);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("{");
+        for (int i = 0; i < bounds.length; i += 2) {
+            sb.append(i == 0 ? "" : ", ").append('[').append(bounds[i]).append("..").append(bounds[i + 1]).append(']');
+        }
+        return sb.append('}').toString();
+    }
+
+    /**
+     * collects ranges in any order, build() sorts and merges them once
+     */
+    public static final class Builder {
+        private long[] bounds = new long[16];
+        private int n;
+
+        private Builder() {
+        }
+
+        /**
+         * [lo, hi], ignored if lo > hi
+         */
+        public Builder add(long lo, long hi) {
+            if (lo > hi) {
+                return this;
+            }
+            if (n == bounds.length) {
+                bounds = Arrays.copyOf(bounds, n * 2);
+            }
+            bounds[n++] = lo;
+            bounds[n++] = hi;
+            return this;
+        }
+
+        public Builder add(Range<Long> range) {
+            long lo = Long.MIN_VALUE;
+            long hi = Long.MAX_VALUE;
+            if (range.hasLowerBound()) {
+                lo = range.lowerEndpoint();
+                if (range.lowerBoundType() == BoundType.OPEN) {
+                    if (lo == Long.MAX_VALUE) {
+                        return this;
+                    }
+                    lo++;
+                }
+            }
+            if (range.hasUpperBound()) {
+                hi = range.upperEndpoint();
+                if (range.upperBoundType() == BoundType.OPEN) {
+                    if (hi == Long.MIN_VALUE) {
+                        return this;
+                    }
+                    hi--;
+                }
+            }
+            return add(lo, hi);
+        }
+
+        /**
+         * sort the lo's and the hi's separately(primitive sorts), then sweep them with a depth counter: the union
+         * is where depth > 0, touching ranges are joined
+         */
+        public LongRangeSet build() {
+            int count = n >>> 1;
+            long[] los = new long[count];
+            long[] his = new long[count];
+            for (int i = 0; i < count; i++) {
+                los[i] = bounds[2 * i];
+                his[i] = bounds[2 * i + 1];
+            }
+            Arrays.sort(los);
+            Arrays.sort(his);
+            long[] out = new long[n];
+            int m = 0;
+            int depth = 0;
+            int i = 0;
+            for (int j = 0; j < count; ) {
+                if (i < count && los[i] <= his[j]) {
+                    if (depth++ == 0) {
+                        if (m > 0 && (out[m - 1] == Long.MAX_VALUE || los[i] <= out[m - 1] + 1)) {
+                            // touches the last range: reopen it
+                            m--;
+                        } else {
+                            out[m++] = los[i];
+                        }
+                    }
+                    i++;
+                } else {
+                    if (--depth == 0) {
+                        out[m++] = his[j];
+                    }
+                    j++;
+                }
+            }
+            return create(out, m);
+        }
+    }
+}
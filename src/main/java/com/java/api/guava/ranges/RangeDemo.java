@@ -4,6 +4,8 @@ import com.google.common.collect.ContiguousSet;
 import com.google.common.collect.DiscreteDomain;
 import com.google.common.collect.Range;
 
+import java.util.List;
+
 /**
  * OUTLINE:
  * 1. create range of different type
@@ -12,6 +14,9 @@ import com.google.common.collect.Range;
  * 4. element range relation
  * 5. relationship between ranges
  * 6. range operations
+ * 7. classify elements against many ranges(range index)
+ * 8. operations on sets of long ranges
+ * 9. convert ranges 2 compressed bitmap
  * <p>
  * Created by kevintian on 2017/10/13.
  */
@@ -92,4 +97,49 @@ public class RangeDemo {
         }
         System.out.println(String.format("range spanned by %s and %s: %s", range1, range2, range1.span(range2)));
     }
+
+    /**
+     * which of the ranges contain each element: one binary search per element over the sorted boundaries,
+     * instead of range.contains(element) on every range
+     */
+    public <C extends Comparable<? super C>> void rangeIndex(List<Range<C>> ranges, List<C> sortedElements) {
+        RangeIndex.Builder<C, Range<C>> builder = RangeIndex.builder();
+        for (Range<C> range : ranges) {
+            builder.put(range, range);
+        }
+        RangeIndex<C, Range<C>> index = builder.build();
+        for (C element : sortedElements) {
+            System.out.println(String.format("%s is contained in %s", element, index.get(element)));
+        }
+    }
+
+    /**
+     * rangeOperations on whole sets of ranges, over primitive longs
+     * CONTENT
+     *  1. union/intersection/difference: linear merges, a disjoint intersection is just empty
+     *  2. cardinality: the number of longs, without a ContiguousSet
+     */
+    public void rangeSetOperations(List<Range<Long>> ranges1, List<Range<Long>> ranges2) {
+        LongRangeSet set1 = LongRangeSet.of(ranges1);
+        LongRangeSet set2 = LongRangeSet.of(ranges2);
+        System.out.println(String.format("union of %s and %s: %s", set1, set2, set1.union(set2)));
+        System.out.println(String.format("intersection of %s and %s: %s", set1, set2, set1.intersection(set2)));
+        System.out.println(String.format("difference of %s and %s: %s", set1, set2, set1.difference(set2)));
+        System.out.println(String.format("cardinality of %s: %s", set1, set1.cardinality()));
+    }
+
+    /**
+     * range2DiscreteDomain without boxing: the ids of the ranges as a compressed bitmap
+     * CONTENT
+     *  1. and/or/andNot, contains, cardinality on the bitmaps
+     *  2. back to ranges(run detection)
+     */
+    public void range2Bitmap(List<Range<Integer>> ranges1, List<Range<Integer>> ranges2) {
+        CompressedBitmap ids1 = CompressedBitmap.of(ranges1);
+        CompressedBitmap ids2 = CompressedBitmap.of(ranges2);
+        System.out.println(String.format("%s: %s ids in %s bytes", ids1, ids1.cardinality(), ids1.sizeInBytes()));
+        System.out.println(String.format("%s and %s: %s", ids1, ids2, ids1.and(ids2).toRangeSet()));
+        System.out.println(String.format("%s or %s: %s", ids1, ids2, ids1.or(ids2).toRangeSet()));
+        System.out.println(String.format("%s andNot %s: %s", ids1, ids2, ids1.andNot(ids2).toRangeSet()));
+    }
 }
@@ -0,0 +1,203 @@
+package com.java.api.guava.ranges;
+
+import com.google.common.collect.BoundType;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Range;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
+
+/**
+ * which of many ranges contain a point, in O(log n) instead of range.contains(...) on every range
+ * <p>
+ * STRUCTURE(sorted boundaries):
+ * the distinct endpoints v0 < v1 < ... < vm-1 cut the line into 2m+1 pieces:
+ * (-∞, v0), [v0, v0], (v0, v1), [v1, v1], ..., (vm-1, +∞)
+ * no range starts or ends inside a piece, so the ranges containing a point depend only on its piece: they are
+ * computed for every piece when built, and a query is one binary search + an array read.
+ * <p>
+ * NOTE:
+ * 1. open/closed and unbounded ends are all exact: a point equal to an endpoint falls in that endpoint's piece
+ * 2. get(...) returns a shared immutable list in insertion order, no allocation per query
+ * 3. forEachSorted(...) classifies ascending points with a merge walk over the boundaries: O(points + m)
+ * 4. memory is one list per piece: fine for tiers, ip blocks and windows that overlap a little; many deeply
+ * nested ranges cost up to pieces * depth references
+ * 5. immutable, thread-safe; see LongRangeIndex for long points without boxing
+ *
+ * @param <C> point type
+ * @param <V> value attached to each range(e.g. the tier name, or the range itself)
+ */
+public final class RangeIndex<C extends Comparable<? super C>, V> {
+    private final Object[] bounds;
+    private final List<V>[] pieces;
+    private final int size;
+
+    private RangeIndex(Object[] bounds, List<V>[] pieces, int size) {
+        this.bounds = bounds;
+        this.pieces = pieces;
+        this.size = size;
+    }
+
+    public static <C extends Comparable<? super C>, V> Builder<C, V> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * @return values of the ranges containing point, in insertion order
+     */
+    public List<V> get(C point) {
+        int j = Arrays.binarySearch(bounds, point);
+        return pieces[j >= 0 ? 2 * j + 1 : -2 * (j + 1)];
+    }
+
+    /**
+     * @return value of the first inserted range containing point, null if none
+     */
+    public V first(C point) {
+        List<V> values = get(point);
+        return values.isEmpty() ? null : values.get(0);
+    }
+
+    public boolean contains(C point) {
+        return !get(point).isEmpty();
+    }
+
+    /**
+     * classify points given in ascending order, walking the boundaries once
+     *
+     * @throws IllegalArgumentException points are not sorted
+     */
+    @SuppressWarnings("unchecked")
+    public void forEachSorted(Iterable<? extends C> sortedPoints, BiConsumer<? super C, ? super List<V>> action) {
+        int j = 0;
+        C previous = null;
+        for (C point : sortedPoints) {
+            if (previous != null && previous.compareTo(point) > 0) {
+                throw new IllegalArgumentException("points not sorted: " + previous + " > " + point);
+            }
+            previous = point;
+            int cmp = -1;
+            while (j < bounds.length && (cmp = ((C) bounds[j]).compareTo(point)) < 0) {
+                j++;
+            }
+            action.accept(point, pieces[j < bounds.length && cmp == 0 ? 2 * j + 1 : 2 * j]);
+        }
+    }
+
+    /**
+     * number of indexed(non-empty) ranges
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * pieces lo[i]..hi[i](inclusive) are covered by range i; the result has the values of the covering ranges
+     * per piece, in range order. consecutive pieces with the same ranges share one list.
+     */
+    @SuppressWarnings("unchecked")
+    static <V> List<V>[] sweep(int pieceCount, int[] lo, int[] hi, List<V> values) {
+        // starts/ends per piece as linked lists over range ids
+        int[] startHead = new int[pieceCount + 1];
+        int[] endHead = new int[pieceCount + 1];
+        Arrays.fill(startHead, -1);
+        Arrays.fill(endHead, -1);
+        int[] nextStart = new int[lo.length];
+        int[] nextEnd = new int[lo.length];
+        for (int i = 0; i < lo.length; i++) {
+            if (lo[i] <= hi[i]) {
+                nextStart[i] = startHead[lo[i]];
+                startHead[lo[i]] = i;
+                nextEnd[i] = endHead[hi[i] + 1];
+                endHead[hi[i] + 1] = i;
+            }
+        }
+        List<V>[] pieces = new List[pieceCount];
+        TreeMap<Integer, V> active = new TreeMap<>();
+        List<V> current = ImmutableList.of();
+        for (int p = 0; p < pieceCount; p++) {
+            boolean changed = false;
+            for (int i = endHead[p]; i >= 0; i = nextEnd[i]) {
+                active.remove(i);
+                changed = true;
+            }
+            for (int i = startHead[p]; i >= 0; i = nextStart[i]) {
+                active.put(i, values.get(i));
+                changed = true;
+            }
+            if (changed) {
+                current = ImmutableList.copyOf(active.values());
+            }
+            pieces[p] = current;
+        }
+        return pieces;
+    }
+
+    /**
+     * collects the ranges, build() may be called more than once
+     */
+    public static final class Builder<C extends Comparable<? super C>, V> {
+        private final List<Range<C>> ranges = new ArrayList<>();
+        private final List<V> values = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /**
+         * @param value not null
+         */
+        public Builder<C, V> put(Range<C> range, V value) {
+            if (value == null) {
+                throw new NullPointerException("null value");
+            }
+            ranges.add(range);
+            values.add(value);
+            return this;
+        }
+
+        public RangeIndex<C, V> build() {
+            List<C> endpoints = new ArrayList<>();
+            for (Range<C> range : ranges) {
+                if (range.hasLowerBound()) {
+                    endpoints.add(range.lowerEndpoint());
+                }
+                if (range.hasUpperBound()) {
+                    endpoints.add(range.upperEndpoint());
+                }
+            }
+            Object[] sorted = endpoints.toArray();
+            Arrays.sort(sorted);
+            int m = 0;
+            for (Object endpoint : sorted) {
+                if (m == 0 || compare(sorted[m - 1], endpoint) != 0) {
+                    sorted[m++] = endpoint;
+                }
+            }
+            Object[] bounds = Arrays.copyOf(sorted, m);
+            int[] lo = new int[ranges.size()];
+            int[] hi = new int[ranges.size()];
+            int size = 0;
+            for (int i = 0; i < ranges.size(); i++) {
+                Range<C> range = ranges.get(i);
+                lo[i] = !range.hasLowerBound() ? 0
+                        : 2 * Arrays.binarySearch(bounds, range.lowerEndpoint())
+                        + (range.lowerBoundType() == BoundType.CLOSED ? 1 : 2);
+                hi[i] = !range.hasUpperBound() ? 2 * m
+                        : 2 * Arrays.binarySearch(bounds, range.upperEndpoint())
+                        + (range.upperBoundType() == BoundType.CLOSED ? 1 : 0);
+                if (lo[i] <= hi[i]) {
+                    size++;
+                }
+            }
+            return new RangeIndex<>(bounds, RangeIndex.sweep(2 * m + 1, lo, hi, values), size);
+        }
+
+        @SuppressWarnings("unchecked")
+        private static int compare(Object a, Object b) {
+            return ((Comparable<Object>) a).compareTo(b);
+        }
+    }
+}
@@ -1,6 +1,6 @@
 package com.java.api.io;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.java.api.jackson.JsonMappers;
 
 import java.io.*;
 import java.net.HttpURLConnection;
@@ -231,7 +231,7 @@ public class PrimitiveIODemo {
         bdParams.put("fieldA", "urirest-test fA");
         bdParams.put("fieldB", "urirest-test fB");
         try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(httpConn.getOutputStream()))) {
-            writer.write(new ObjectMapper().writeValueAsString(bdParams));
+            writer.write(JsonMappers.writer(Map.class).writeValueAsString(bdParams));
             writer.flush();
         }
         System.out.println("status: "+ httpConn.getResponseCode());
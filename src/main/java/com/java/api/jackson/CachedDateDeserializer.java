@@ -0,0 +1,117 @@
+package com.java.api.jackson;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.deser.ContextualDeserializer;
+import com.fasterxml.jackson.databind.deser.std.DateDeserializers;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.chrono.IsoEra;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+import java.time.temporal.TemporalQueries;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * java.util.Date deserializer for properties with a @JsonFormat pattern, the counterpart of CachedDateSerializer
+ * <p>
+ * NOTE:
+ * 1. parses with an immutable DateTimeFormatter; a pattern without time fields(e.g. yyyy-MM-dd) means midnight,
+ * a pattern without offset uses the @JsonFormat/mapper timezone, same as SimpleDateFormat
+ * 2. numbers are still read as epoch millis
+ * 3. properties without a pattern keep jackson's DateDeserializer
+ * 4. only @JsonFormat(lenient = OptBoolean.FALSE) properties are parsed here, STRICT: unpadded fields,
+ * out-of-range fields(2017-02-30, 2017-13-01) and trailing text are an InvalidFormatException. lenient(the
+ * default) properties keep jackson's DateDeserializer, i.e. the lenient SimpleDateFormat, which rolls
+ * 2017-02-30 over to 2017-03-02 and ignores trailing text
+ * 5. patterns that differ between SimpleDateFormat and java.time(CachedDateSerializer.isCompatiblePattern) keep
+ * jackson's DateDeserializer too
+ */
+public class CachedDateDeserializer extends StdDeserializer<Date> implements ContextualDeserializer {
+    private final DateTimeFormatter formatter;
+    private final ZoneId zone;
+
+    public CachedDateDeserializer() {
+        this(null, null);
+    }
+
+    CachedDateDeserializer(DateTimeFormatter formatter, ZoneId zone) {
+        super(Date.class);
+        this.formatter = formatter;
+        this.zone = zone;
+    }
+
+    @Override
+    public JsonDeserializer<?> createContextual(DeserializationContext ctxt, BeanProperty property)
+            throws JsonMappingException {
+        JsonFormat.Value format = findFormatOverrides(ctxt, property, handledType());
+        if (format == null || !format.hasPattern() || format.getLenient() != Boolean.FALSE
+                || !CachedDateSerializer.isCompatiblePattern(format.getPattern())) {
+            return DateDeserializers.DateDeserializer.instance.createContextual(ctxt, property);
+        }
+        TimeZone tz = format.hasTimeZone() ? format.getTimeZone() : ctxt.getTimeZone();
+        Locale locale = format.hasLocale() ? format.getLocale() : ctxt.getLocale();
+        try {
+            return new CachedDateDeserializer(strict(format.getPattern(), locale), tz.toZoneId());
+        } catch (IllegalArgumentException e) {
+            return DateDeserializers.DateDeserializer.instance.createContextual(ctxt, property);
+        }
+    }
+
+    /**
+     * STRICT resolving needs an era for 'yyyy'(year-of-era), AD is assumed when the pattern has none
+     */
+    static DateTimeFormatter strict(String pattern, Locale locale) {
+        return new DateTimeFormatterBuilder().appendPattern(pattern)
+                .parseDefaulting(ChronoField.ERA, IsoEra.CE.getValue())
+                .toFormatter(locale)
+                .withResolverStyle(ResolverStyle.STRICT);
+    }
+
+    @Override
+    public Date deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (formatter == null || !p.hasToken(JsonToken.VALUE_STRING)) {
+            return _parseDate(p, ctxt);
+        }
+        String text = p.getText().trim();
+        if (text.isEmpty()) {
+            return null;
+        }
+        try {
+            return Date.from(toInstant(formatter.parse(text)));
+        } catch (DateTimeParseException e) {
+            return (Date) ctxt.handleWeirdStringValue(handledType(), text,
+                    "expected format \"%s\": %s", formatter, e.getMessage());
+        }
+    }
+
+    private Instant toInstant(TemporalAccessor parsed) {
+        if (parsed.isSupported(ChronoField.INSTANT_SECONDS)) {
+            return Instant.from(parsed);
+        }
+        LocalDate date = parsed.query(TemporalQueries.localDate());
+        if (date == null) {
+            throw new DateTimeParseException("no date in the pattern", parsed.toString(), 0);
+        }
+        LocalTime time = parsed.query(TemporalQueries.localTime());
+        ZoneId parsedZone = parsed.query(TemporalQueries.zone());
+        return date.atTime(time == null ? LocalTime.MIDNIGHT : time)
+                .atZone(parsedZone == null ? zone : parsedZone).toInstant();
+    }
+}
@@ -0,0 +1,146 @@
+package com.java.api.jackson;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import com.fasterxml.jackson.databind.ser.std.DateSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * java.util.Date serializer for properties with a @JsonFormat pattern
+ * <p>
+ * NOTE:
+ * 1. formats with an immutable java.time DateTimeFormatter, no SimpleDateFormat clone per value
+ * 2. patterns without sub-second fields produce the same text for a whole second, so the last formatted second
+ * is cached and timestamps of the same second(the common case in element-heavy payloads) are a cache hit
+ * 3. timezone/locale resolve like jackson's: @JsonFormat(timezone/locale) first, then the mapper defaults
+ * 4. properties without a pattern, or with a pattern that doesn't mean the same in SimpleDateFormat and
+ * DateTimeFormatter(see isCompatiblePattern), keep jackson's DateSerializer
+ */
+public class CachedDateSerializer extends StdSerializer<Date> implements ContextualSerializer {
+    private final DateTimeFormatter formatter;
+    private final boolean cacheable;
+    private volatile Formatted last;
+
+    public CachedDateSerializer() {
+        this(null, false);
+    }
+
+    CachedDateSerializer(DateTimeFormatter formatter, boolean cacheable) {
+        super(Date.class);
+        this.formatter = formatter;
+        this.cacheable = cacheable;
+    }
+
+    @Override
+    public JsonSerializer<?> createContextual(SerializerProvider prov, BeanProperty property)
+            throws JsonMappingException {
+        JsonFormat.Value format = findFormatOverrides(prov, property, handledType());
+        if (format == null || !format.hasPattern() || !isCompatiblePattern(format.getPattern())) {
+            return DateSerializer.instance.createContextual(prov, property);
+        }
+        TimeZone tz = format.hasTimeZone() ? format.getTimeZone() : prov.getTimeZone();
+        Locale locale = format.hasLocale() ? format.getLocale() : prov.getLocale();
+        try {
+            DateTimeFormatter formatter = DateTimeFormatter.ofPattern(format.getPattern(), locale)
+                    .withZone(tz.toZoneId());
+            return new CachedDateSerializer(formatter, !hasSubSecondField(format.getPattern()));
+        } catch (IllegalArgumentException e) {
+            return DateSerializer.instance.createContextual(prov, property);
+        }
+    }
+
+    @Override
+    public void serialize(Date value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        if (formatter == null) {
+            // not contextualized, e.g. a root value
+            provider.defaultSerializeDateValue(value, gen);
+            return;
+        }
+        gen.writeString(format(value.getTime()));
+    }
+
+    String format(long millis) {
+        if (!cacheable) {
+            return formatter.format(Instant.ofEpochMilli(millis));
+        }
+        long second = Math.floorDiv(millis, 1000L);
+        Formatted cached = last;
+        if (cached != null && cached.second == second) {
+            return cached.text;
+        }
+        String text = formatter.format(Instant.ofEpochSecond(second));
+        last = new Formatted(second, text);
+        return text;
+    }
+
+    /**
+     * whether the pattern means the same to SimpleDateFormat and DateTimeFormatter: only the letters
+     * G y M d H h k K m s a E D z Z X(outside of quoted literals), and neither 'yy'(SimpleDateFormat parses it
+     * with an 80-20 century window, java.time as 20xx) nor 'ZZZZ'(localized offset in java.time).
+     * e.g. u(day number vs year), S(millis vs fraction) and Y(week year) are not compatible
+     */
+    static boolean isCompatiblePattern(String pattern) {
+        boolean quoted = false;
+        for (int i = 0; i < pattern.length(); ) {
+            char c = pattern.charAt(i);
+            if (c == '\'') {
+                quoted = !quoted;
+                i++;
+                continue;
+            }
+            int run = 1;
+            while (i + run < pattern.length() && pattern.charAt(i + run) == c) {
+                run++;
+            }
+            i += run;
+            if (quoted || !(c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z')) {
+                continue;
+            }
+            if ("GyMdHhkKmsaEDzZX".indexOf(c) < 0 || c == 'y' && run == 2 || c == 'Z' && run >= 4) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * S(fraction), n(nano), N(nano-of-day), A(milli-of-day) outside of quoted literals
+     */
+    static boolean hasSubSecondField(String pattern) {
+        boolean quoted = false;
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == '\'') {
+                quoted = !quoted;
+            } else if (!quoted && (c == 'S' || c == 'n' || c == 'N' || c == 'A')) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * immutable, so it can be published through the volatile field as a whole
+     */
+    private static final class Formatted {
+        final long second;
+        final String text;
+
+        Formatted(long second, String text) {
+            this.second = second;
+            this.text = text;
+        }
+    }
+}
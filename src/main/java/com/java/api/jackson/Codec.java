@@ -0,0 +1,102 @@
+package com.java.api.jackson;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * pluggable wire formats with the SAME mapping semantics
+ * <p>
+ * 1. JSON: textual, for external apis
+ * 2. SMILE: binary json by jackson, back-references repeated field names/short strings, best for internal hops
+ * between jvm services
+ * 3. CBOR: binary json standardized as RFC 7049, for non-jvm peers
+ * <p>
+ * NOTE: only the JsonFactory differs(JSON reuses JsonMappers.MAPPER), databind is the same, so @JsonProperty/
+ * @JsonIgnore/@JsonFormat behave exactly as in json. JSON takes its readers/writers from JsonMappers' caches, the
+ * binary formats cache theirs per type the same way.
+ * REFER: CodecBenchmark(src/test) for size and encode/decode speed of Container payloads
+ */
+public enum Codec {
+    JSON("application/json", JsonMappers.MAPPER),
+    SMILE("application/x-jackson-smile", JsonMappers.newMapper(new SmileFactory())),
+    CBOR("application/cbor", JsonMappers.newMapper(new CBORFactory()));
+
+    private final String contentType;
+    private final ObjectMapper mapper;
+    // null for JSON, which shares JsonMappers' caches
+    private final ConcurrentMap<Class<?>, ObjectReader> readers;
+    private final ConcurrentMap<Class<?>, ObjectWriter> writers;
+
+    Codec(String contentType, ObjectMapper mapper) {
+        this.contentType = contentType;
+        this.mapper = mapper;
+        boolean shared = mapper == JsonMappers.MAPPER;
+        this.readers = shared ? null : new ConcurrentHashMap<Class<?>, ObjectReader>();
+        this.writers = shared ? null : new ConcurrentHashMap<Class<?>, ObjectWriter>();
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * @return null if no codec matches
+     */
+    public static Codec forContentType(String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        for (Codec codec : values()) {
+            if (contentType.startsWith(codec.contentType)) {
+                return codec;
+            }
+        }
+        return null;
+    }
+
+    public byte[] encode(Object value) throws JsonProcessingException {
+        return writer(value.getClass()).writeValueAsBytes(value);
+    }
+
+    public <T> T decode(byte[] data, Class<T> type) throws IOException {
+        return reader(type).readValue(data);
+    }
+
+    public ObjectReader reader(Class<?> type) {
+        if (readers == null) {
+            return JsonMappers.reader(type);
+        }
+        ObjectReader reader = readers.get(type);
+        if (reader == null) {
+            ObjectReader created = mapper.readerFor(type);
+            reader = readers.putIfAbsent(type, created);
+            if (reader == null) {
+                reader = created;
+            }
+        }
+        return reader;
+    }
+
+    public ObjectWriter writer(Class<?> type) {
+        if (writers == null) {
+            return JsonMappers.writer(type);
+        }
+        ObjectWriter writer = writers.get(type);
+        if (writer == null) {
+            ObjectWriter created = mapper.writerFor(type);
+            writer = writers.putIfAbsent(type, created);
+            if (writer == null) {
+                writer = created;
+            }
+        }
+        return writer;
+    }
+}
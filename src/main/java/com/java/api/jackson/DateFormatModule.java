@@ -0,0 +1,18 @@
+package com.java.api.jackson;
+
+import com.fasterxml.jackson.databind.module.SimpleModule;
+
+import java.util.Date;
+
+/**
+ * java.time based (de)serialization of java.util.Date properties annotated with @JsonFormat(pattern = ...)
+ * REFER: CachedDateSerializer, CachedDateDeserializer
+ */
+public class DateFormatModule extends SimpleModule {
+
+    public DateFormatModule() {
+        super("DateFormatModule");
+        addSerializer(Date.class, new CachedDateSerializer());
+        addDeserializer(Date.class, new CachedDateDeserializer());
+    }
+}
@@ -5,11 +5,12 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.lang.reflect.Field;
+import java.io.InputStream;
 import java.util.*;
+import java.util.function.Consumer;
 
 /**
  * ref:
@@ -20,6 +21,12 @@ import java.util.*;
  * Created by kevintian on 2017/9/22.
  */
 public class JacksonDemo {
+    static final JsonArrayStreamer<Element> ELEMENT_STREAMER = new JsonArrayStreamer<>("elements", Element.class);
+
+    static {
+        JsonMappers.warmUp(Container.class, Element.class);
+    }
+
     public static void main(String[] args) throws Exception {
         JacksonDemo demo = new JacksonDemo();
         // para data
@@ -47,20 +54,33 @@ public class JacksonDemo {
         System.out.println(retObj);
         System.out.println("***json 2 JsonNode:");
         JsonNode retNode = demo.json2JsonNode(json);
-        for(Field f : Container.class.getDeclaredFields()) {
-            String fieldName = f.getName();
+        Iterator<String> fieldNames = retNode.fieldNames();
+        while (fieldNames.hasNext()) {
+            String fieldName = fieldNames.next();
             System.out.println(String.format("%s=%s", fieldName, retNode.get(fieldName)));
         }
+        System.out.println("***json 2 LazyJsonView:");
+        LazyJsonView view = demo.json2LazyView(json);
+        System.out.println(String.format("name=%s, createTime=%s", view.getText("name"), view.getText("createTime")));
+        System.out.println("***stream elements:");
+        long count = demo.streamElements(new ByteArrayInputStream(json.getBytes("utf-8")), new Consumer<Element>() {
+            @Override
+            public void accept(Element element) {
+                System.out.println(element);
+            }
+        });
+        System.out.println("element count: " + count);
     }
 
     /**
      * convert java object 2 json string
+     * NOTE: all conversions go through the shared readers/writers of JsonMappers, never a new ObjectMapper per call
      * @param obj
      * @return
      * @throws JsonProcessingException
      */
     String obj2Json(Object obj) throws JsonProcessingException {
-        return new ObjectMapper().writeValueAsString(obj);
+        return JsonMappers.writer(obj.getClass()).writeValueAsString(obj);
     }
 
     /**
@@ -74,7 +94,7 @@ public class JacksonDemo {
      * @throws IOException
      */
     <T> T json2Obj(String json, Class<T> objCls) throws IOException {
-        return new ObjectMapper().readValue(json, objCls);
+        return JsonMappers.reader(objCls).readValue(json);
     }
 
     /**
@@ -84,7 +104,29 @@ public class JacksonDemo {
      * @throws IOException
      */
     JsonNode json2JsonNode(String json) throws IOException {
-        return new ObjectMapper().readTree(json);
+        return JsonMappers.treeReader().readTree(json);
+    }
+
+    /**
+     * index the top-level fields of a json string, values are decoded only when read.
+     * cheaper than json2JsonNode when only a few fields of a big payload are needed
+     * @param json
+     * @return
+     * @throws IOException
+     */
+    LazyJsonView json2LazyView(String json) throws IOException {
+        return new LazyJsonView(json);
+    }
+
+    /**
+     * walk the 'elements' array of a Container document one element at a time, without materializing the Container
+     * @param in
+     * @param action
+     * @return number of elements
+     * @throws IOException
+     */
+    long streamElements(InputStream in, Consumer<Element> action) throws IOException {
+        return ELEMENT_STREAMER.forEach(in, action);
     }
 
     static class Container {
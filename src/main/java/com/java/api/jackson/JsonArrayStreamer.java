@@ -0,0 +1,237 @@
+package com.java.api.jackson;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * stream the elements of ONE json array, e.g. the "elements" of a Container document, without materializing the
+ * document: only the current element lives in memory, so the input can be much larger than the heap.
+ * <p>
+ * USAGE:
+ * 1. forEach(in, action): callback per element
+ * 2. stream(in): lazy sequential Stream, close it to release the input
+ * 3. forEachParallel(in, action, parallelism): tokenizing stays on the calling thread(json can only be read in
+ * order), binding + action run on 'parallelism' workers. memory stays bounded by a small queue of batches.
+ * <p>
+ * NOTE: json null elements are skipped by all three, and not counted
+ *
+ * @param <T> element type
+ */
+public class JsonArrayStreamer<T> {
+    private static final int BATCH_SIZE = 256;
+
+    private final String arrayField;
+    private final ObjectReader reader;
+
+    /**
+     * @param arrayField the top-level field that holds the array, null if the document itself is the array
+     * @param type       element type
+     */
+    public JsonArrayStreamer(String arrayField, Class<T> type) {
+        this.arrayField = arrayField;
+        this.reader = JsonMappers.reader(type);
+    }
+
+    /**
+     * @return number of elements
+     */
+    public long forEach(InputStream in, Consumer<? super T> action) throws IOException {
+        try (JsonParser parser = open(in)) {
+            long count = 0;
+            if (parser == null) {
+                return count;
+            }
+            T element;
+            while ((element = next(parser)) != null) {
+                action.accept(element);
+                count++;
+            }
+            return count;
+        }
+    }
+
+    /**
+     * NOTE: IOExceptions while streaming are thrown as UncheckedIOException
+     */
+    public Stream<T> stream(InputStream in) throws IOException {
+        final JsonParser parser = open(in);
+        if (parser == null) {
+            return Stream.empty();
+        }
+        Spliterator<T> spliterator = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                try {
+                    T element = next(parser);
+                    if (element == null) {
+                        return false;
+                    }
+                    action.accept(element);
+                    return true;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+        return StreamSupport.stream(spliterator, false).onClose(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    parser.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        });
+    }
+
+    /**
+     * NOTE: the action must be thread-safe, and elements are NOT delivered in document order
+     *
+     * @return number of elements
+     */
+    public long forEachParallel(InputStream in, final Consumer<? super T> action, int parallelism)
+            throws IOException, InterruptedException {
+        final List<TokenBuffer> poison = Collections.emptyList();
+        final BlockingQueue<List<TokenBuffer>> queue = new ArrayBlockingQueue<>(parallelism * 2);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final AtomicLong count = new AtomicLong();
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism);
+        for (int i = 0; i < parallelism; i++) {
+            workers.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        List<TokenBuffer> batch;
+                        while ((batch = queue.take()) != poison) {
+                            for (TokenBuffer buffer : batch) {
+                                if (failure.get() == null) {
+                                    T element = reader.readValue(buffer.asParser());
+                                    if (element != null) {
+                                        action.accept(element);
+                                        count.incrementAndGet();
+                                    }
+                                }
+                            }
+                        }
+                    } catch (Throwable e) {
+                        failure.compareAndSet(null, e);
+                        // keep draining, so the producer never blocks on a full queue
+                        drain(queue, poison);
+                    }
+                }
+            });
+        }
+        try (JsonParser parser = open(in)) {
+            List<TokenBuffer> batch = new ArrayList<>(BATCH_SIZE);
+            while (parser != null && failure.get() == null) {
+                JsonToken token = parser.nextToken();
+                if (token == null || token == JsonToken.END_ARRAY) {
+                    break;
+                }
+                if (token == JsonToken.VALUE_NULL) {
+                    continue;
+                }
+                TokenBuffer buffer = new TokenBuffer(parser);
+                buffer.copyCurrentStructure(parser);
+                batch.add(buffer);
+                if (batch.size() == BATCH_SIZE) {
+                    queue.put(batch);
+                    batch = new ArrayList<>(BATCH_SIZE);
+                }
+            }
+            if (!batch.isEmpty()) {
+                queue.put(batch);
+            }
+        } finally {
+            for (int i = 0; i < parallelism; i++) {
+                queue.put(poison);
+            }
+            workers.shutdown();
+            workers.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        }
+        Throwable e = failure.get();
+        if (e instanceof IOException) {
+            throw (IOException) e;
+        } else if (e instanceof RuntimeException) {
+            throw (RuntimeException) e;
+        } else if (e != null) {
+            throw new IllegalStateException(e);
+        }
+        return count.get();
+    }
+
+    private static void drain(BlockingQueue<List<TokenBuffer>> queue, List<TokenBuffer> poison) {
+        try {
+            while (queue.take() != poison) {
+                // discard
+            }
+        } catch (InterruptedException ignore) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return parser positioned on the START_ARRAY, null if the array is absent
+     */
+    private JsonParser open(InputStream in) throws IOException {
+        JsonParser parser = JsonMappers.MAPPER.getFactory().createParser(in);
+        JsonToken token = parser.nextToken();
+        if (arrayField == null && token == JsonToken.START_ARRAY) {
+            return parser;
+        }
+        if (arrayField != null && token == JsonToken.START_OBJECT) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                token = parser.nextToken();
+                if (arrayField.equals(name) && token == JsonToken.START_ARRAY) {
+                    return parser;
+                }
+                parser.skipChildren();
+            }
+        }
+        parser.close();
+        return null;
+    }
+
+    /**
+     * @return next non-null element, null at the end of the array
+     */
+    private T next(JsonParser parser) throws IOException {
+        while (true) {
+            JsonToken token = parser.nextToken();
+            if (token == null || token == JsonToken.END_ARRAY) {
+                return null;
+            }
+            if (token == JsonToken.VALUE_NULL) {
+                continue;
+            }
+            T element = reader.readValue(parser);
+            if (element != null) {
+                return element;
+            }
+        }
+    }
+}
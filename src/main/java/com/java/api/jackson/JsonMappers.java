@@ -0,0 +1,93 @@
+package com.java.api.jackson;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * central registry of the json mapping objects
+ * <p>
+ * NOTE:
+ * 1. ObjectMapper is thread-safe once configured, but building one is expensive: every new instance re-creates the
+ * serializer/deserializer caches and introspects the bean classes again. so there is ONE shared mapper here.
+ * 2. ObjectReader/ObjectWriter are immutable, they are cached per target type with the root (de)serializer
+ * resolved eagerly, so a cached reader/writer skips the root lookup on every call.
+ * 3. warmUp(...) at startup moves the introspection cost out of the first request.
+ * 4. never re-configure MAPPER after startup, derive a reader/writer with the wanted features instead.
+ * 5. every mapper comes from newMapper(...), which registers the Afterburner module: getters/setters/fields and
+ * default constructors are called through generated bytecode instead of reflection(and without boxing of
+ * primitive properties). the annotations are untouched, Afterburner only replaces the accessors.
+ * 6. ...and the DateFormatModule: @JsonFormat dates through cached java.time formatters instead of SimpleDateFormat
+ */
+public final class JsonMappers {
+    public static final ObjectMapper MAPPER = newMapper(new JsonFactory());
+
+    private static final ConcurrentMap<Class<?>, ObjectReader> READERS = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<Class<?>, ObjectWriter> WRITERS = new ConcurrentHashMap<>();
+    private static final ObjectReader TREE_READER = MAPPER.readerFor(JsonNode.class);
+
+    static {
+        warmUp(Map.class);
+    }
+
+    private JsonMappers() {
+    }
+
+    /**
+     * a mapper for the given format, with the modules every mapper of this project shares
+     */
+    public static ObjectMapper newMapper(JsonFactory factory) {
+        ObjectMapper mapper = new ObjectMapper(factory);
+        mapper.registerModule(new AfterburnerModule());
+        mapper.registerModule(new DateFormatModule());
+        return mapper;
+    }
+
+    public static ObjectReader reader(Class<?> type) {
+        ObjectReader reader = READERS.get(type);
+        if (reader == null) {
+            ObjectReader created = MAPPER.readerFor(type);
+            reader = READERS.putIfAbsent(type, created);
+            if (reader == null) {
+                reader = created;
+            }
+        }
+        return reader;
+    }
+
+    public static ObjectWriter writer(Class<?> type) {
+        ObjectWriter writer = WRITERS.get(type);
+        if (writer == null) {
+            ObjectWriter created = MAPPER.writerFor(type);
+            writer = WRITERS.putIfAbsent(type, created);
+            if (writer == null) {
+                writer = created;
+            }
+        }
+        return writer;
+    }
+
+    /**
+     * reader of JsonNode trees
+     */
+    public static ObjectReader treeReader() {
+        return TREE_READER;
+    }
+
+    /**
+     * resolve the readers/writers of the given types ahead of the first call
+     */
+    public static void warmUp(Class<?>... types) {
+        for (Class<?> type : types) {
+            reader(type);
+            writer(type);
+        }
+    }
+}
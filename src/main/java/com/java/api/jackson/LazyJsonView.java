@@ -0,0 +1,139 @@
+package com.java.api.jackson;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * read-only view of a json object that decodes a field only when it is accessed
+ * <p>
+ * HOW:
+ * 1. the raw utf-8 bytes are scanned ONCE, building an index: field name -> [start, end) byte offsets of its value.
+ * skipped values are only tokenized, no JsonNode/String is created for them.
+ * 2. get(...) decodes just the bytes of the requested value; decoded trees are kept, so a field is decoded once.
+ * 3. nested(...) returns a view over the bytes of an object field, its index is built on that first call.
+ * <p>
+ * USE it for picking a handful of fields out of a large payload; when most fields are needed, a full readTree is
+ * cheaper.
+ */
+public class LazyJsonView {
+    private final byte[] data;
+    private final Map<String, Integer> index = new HashMap<>();
+    private int[] starts = new int[8];
+    private int[] ends = new int[8];
+    private JsonNode[] decoded = new JsonNode[8];
+    private int size;
+
+    public LazyJsonView(String json) throws IOException {
+        this(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public LazyJsonView(byte[] data) throws IOException {
+        this(data, 0, data.length);
+    }
+
+    private LazyJsonView(byte[] data, int offset, int length) throws IOException {
+        this.data = data;
+        try (JsonParser parser = JsonMappers.MAPPER.getFactory().createParser(data, offset, length)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("json object expected");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                JsonToken token = parser.nextToken();
+                // offsets of a sub-range parser are relative to its own start
+                int start = offset + (int) parser.getTokenLocation().getByteOffset();
+                if (token == JsonToken.VALUE_STRING) {
+                    // strings are read lazily: consume it into the parser buffer, without creating a String
+                    parser.finishToken();
+                } else {
+                    parser.skipChildren();
+                }
+                int end = offset + (int) parser.getCurrentLocation().getByteOffset();
+                add(name, start, end);
+            }
+        }
+    }
+
+    private void add(String name, int start, int end) {
+        if (size == starts.length) {
+            starts = Arrays.copyOf(starts, size * 2);
+            ends = Arrays.copyOf(ends, size * 2);
+            decoded = Arrays.copyOf(decoded, size * 2);
+        }
+        starts[size] = start;
+        ends[size] = end;
+        // duplicated names: the last one wins, as in a JsonNode tree
+        index.put(name, size++);
+    }
+
+    public boolean has(String name) {
+        return index.containsKey(name);
+    }
+
+    public Set<String> fieldNames() {
+        return index.keySet();
+    }
+
+    /**
+     * @return decoded value, null if the field is absent
+     */
+    public JsonNode get(String name) throws IOException {
+        Integer idx = index.get(name);
+        if (idx == null) {
+            return null;
+        }
+        JsonNode node = decoded[idx];
+        if (node == null) {
+            node = JsonMappers.treeReader().readValue(data, starts[idx], ends[idx] - starts[idx]);
+            decoded[idx] = node;
+        }
+        return node;
+    }
+
+    /**
+     * bind the field straight to a java type, skipping the JsonNode
+     */
+    public <T> T get(String name, Class<T> type) throws IOException {
+        Integer idx = index.get(name);
+        if (idx == null) {
+            return null;
+        }
+        return JsonMappers.reader(type).readValue(data, starts[idx], ends[idx] - starts[idx]);
+    }
+
+    /**
+     * @return text of a scalar field, null if absent or json null
+     */
+    public String getText(String name) throws IOException {
+        JsonNode node = get(name);
+        return node == null || node.isNull() ? null : node.asText();
+    }
+
+    /**
+     * @return view over an object field, null if absent
+     * @throws IOException the field is not an object
+     */
+    public LazyJsonView nested(String name) throws IOException {
+        Integer idx = index.get(name);
+        if (idx == null) {
+            return null;
+        }
+        return new LazyJsonView(data, starts[idx], ends[idx] - starts[idx]);
+    }
+
+    /**
+     * raw json text of the field, e.g. to forward it without decoding
+     */
+    public String rawText(String name) {
+        Integer idx = index.get(name);
+        return idx == null ? null : new String(data, starts[idx], ends[idx] - starts[idx], StandardCharsets.UTF_8);
+    }
+}
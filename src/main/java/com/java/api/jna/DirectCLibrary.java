@@ -0,0 +1,92 @@
+package com.java.api.jna;
+
+import com.sun.jna.Native;
+import com.sun.jna.Platform;
+import com.sun.jna.Pointer;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * libc memory functions by JNA direct mapping
+ * <p>
+ * vs CLibrary(Native.loadLibrary):
+ * 1. loadLibrary builds a java.lang.reflect.Proxy, every call goes through InvocationHandler + reflective argument
+ * conversion(Object[] boxing, type lookup)
+ * 2. Native.register(...) binds the 'static native' methods of this class straight to the symbols, a call costs
+ * about a plain JNI call: primitives and Pointers are passed as is
+ * <p>
+ * NOTE:
+ * 1. only primitive/Pointer signatures are used, anything needing conversion(String, Structure, varargs) would
+ * bring the overhead back; varargs are not supported by direct mapping at all
+ * 2. size_t is mapped to long, so the bindings are registered on 64-bit jvms only(see AVAILABLE)
+ * 3. memory is not checked: addresses and lengths must be valid, or the jvm crashes
+ */
+public final class DirectCLibrary {
+    /**
+     * whether the natives are bound; calling them otherwise throws UnsatisfiedLinkError
+     */
+    public static final boolean AVAILABLE;
+
+    static {
+        boolean registered = false;
+        if (Native.SIZE_T_SIZE == 8) {
+            Native.register(DirectCLibrary.class, Platform.C_LIBRARY_NAME);
+            registered = true;
+        }
+        AVAILABLE = registered;
+    }
+
+    private DirectCLibrary() {
+    }
+
+    /**
+     * void *memcpy(void *dest, const void *src, size_t n), the areas must not overlap
+     */
+    public static native Pointer memcpy(Pointer dest, Pointer src, long n);
+
+    /**
+     * void *memmove(void *dest, const void *src, size_t n), the areas may overlap
+     */
+    public static native Pointer memmove(Pointer dest, Pointer src, long n);
+
+    /**
+     * void *memset(void *s, int c, size_t n)
+     */
+    public static native Pointer memset(Pointer s, int c, long n);
+
+    /**
+     * native address of a direct buffer, shifted to its position
+     *
+     * @throws IllegalArgumentException the buffer is not direct
+     */
+    public static Pointer pointer(ByteBuffer buffer) {
+        if (!buffer.isDirect()) {
+            throw new IllegalArgumentException("not a direct buffer");
+        }
+        return Native.getDirectBufferPointer(buffer).share(buffer.position());
+    }
+
+    /**
+     * copy src.remaining() bytes from src to dst(both direct) by one memmove; positions are advanced like
+     * dst.put(src)
+     *
+     * @throws BufferOverflowException dst has less room than src.remaining()
+     */
+    public static void copy(ByteBuffer src, ByteBuffer dst) {
+        int n = src.remaining();
+        if (n > dst.remaining()) {
+            throw new BufferOverflowException();
+        }
+        memmove(pointer(dst), pointer(src), n);
+        src.position(src.position() + n);
+        dst.position(dst.position() + n);
+    }
+
+    /**
+     * set buffer[position, limit) to b, position is not changed
+     */
+    public static void fill(ByteBuffer buffer, byte b) {
+        memset(pointer(buffer), b, buffer.remaining());
+    }
+}
@@ -0,0 +1,203 @@
+package com.java.api.jna;
+
+import com.sun.jna.LastErrorException;
+import com.sun.jna.Native;
+import com.sun.jna.Platform;
+import com.sun.jna.Pointer;
+
+import java.io.FileDescriptor;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * linux memory/io/scheduling calls by JNA direct mapping(see DirectCLibrary)
+ * <p>
+ * POINTS:
+ * 1. madvise/mlock on direct ByteBuffers: tell the kernel how a buffer is accessed, or keep it out of swap
+ * 2. posix_fadvise on a file: read-ahead for sequential scans, drop the page cache of data read once
+ * 3. sched_setaffinity: pin the calling thread to cpus, e.g. the consumer thread of a ring buffer
+ * <p>
+ * NOTE:
+ * 1. registered on 64-bit linux only(see AVAILABLE)
+ * 2. failures throw LastErrorException carrying errno, e.g. mlock beyond RLIMIT_MEMLOCK gives ENOMEM(12)
+ */
+public final class LinuxLibrary {
+    public static final int MADV_NORMAL = 0;
+    public static final int MADV_RANDOM = 1;
+    public static final int MADV_SEQUENTIAL = 2;
+    public static final int MADV_WILLNEED = 3;
+    public static final int MADV_DONTNEED = 4;
+
+    public static final int POSIX_FADV_NORMAL = 0;
+    public static final int POSIX_FADV_RANDOM = 1;
+    public static final int POSIX_FADV_SEQUENTIAL = 2;
+    public static final int POSIX_FADV_WILLNEED = 3;
+    public static final int POSIX_FADV_DONTNEED = 4;
+    public static final int POSIX_FADV_NOREUSE = 5;
+
+    static final int SC_PAGESIZE = 30;
+    /**
+     * cpu_set_t of glibc: 1024 bits
+     */
+    static final int CPU_SET_LONGS = 1024 / 64;
+
+    /**
+     * whether the natives are bound; calling them otherwise throws UnsatisfiedLinkError
+     */
+    public static final boolean AVAILABLE;
+    private static final long PAGE_SIZE;
+    private static final Field FD_FIELD;
+
+    static {
+        boolean registered = false;
+        if (Platform.isLinux() && Native.SIZE_T_SIZE == 8) {
+            Native.register(LinuxLibrary.class, Platform.C_LIBRARY_NAME);
+            registered = true;
+        }
+        AVAILABLE = registered;
+        PAGE_SIZE = registered ? sysconf(SC_PAGESIZE) : 4096;
+        Field field = null;
+        try {
+            Field fd = FileDescriptor.class.getDeclaredField("fd");
+            // jdk 9+ throws InaccessibleObjectException unless started with --add-opens java.base/java.io=ALL-UNNAMED
+            fd.setAccessible(true);
+            field = fd;
+        } catch (Exception e) {
+            // fadvise(FileDescriptor, ...) is unsupported, fadvise(int, ...) still works
+        }
+        FD_FIELD = field;
+    }
+
+    private LinuxLibrary() {
+    }
+
+    public static native long sysconf(int name);
+
+    /**
+     * int madvise(void *addr, size_t length, int advice), addr must be page aligned
+     */
+    public static native int madvise(Pointer addr, long length, int advice) throws LastErrorException;
+
+    /**
+     * int posix_fadvise(int fd, off_t offset, off_t len, int advice)
+     *
+     * @return 0 or the error number(errno is not set)
+     */
+    public static native int posix_fadvise(int fd, long offset, long len, int advice);
+
+    public static native int mlock(Pointer addr, long len) throws LastErrorException;
+
+    public static native int munlock(Pointer addr, long len) throws LastErrorException;
+
+    /**
+     * @param pid 0 = the calling thread
+     */
+    public static native int sched_setaffinity(int pid, long cpusetsize, long[] mask) throws LastErrorException;
+
+    public static native int sched_getaffinity(int pid, long cpusetsize, long[] mask) throws LastErrorException;
+
+    public static long pageSize() {
+        return PAGE_SIZE;
+    }
+
+    /**
+     * madvise the whole pages inside buffer[position, limit): the range is narrowed to page boundaries, never
+     * widened, since the first and last pages may hold unrelated data(a direct buffer is malloc'd memory) which
+     * MADV_DONTNEED would zero
+     *
+     * @return false if the range holds no whole page(nothing advised)
+     */
+    public static boolean madvise(ByteBuffer buffer, int advice) {
+        long address = Pointer.nativeValue(DirectCLibrary.pointer(buffer));
+        long start = (address + PAGE_SIZE - 1) & -PAGE_SIZE;
+        long end = (address + buffer.remaining()) & -PAGE_SIZE;
+        if (end <= start) {
+            return false;
+        }
+        madvise(new Pointer(start), end - start, advice);
+        return true;
+    }
+
+    /**
+     * lock the pages of buffer[position, limit) in ram
+     */
+    public static void mlock(ByteBuffer buffer) {
+        mlock(DirectCLibrary.pointer(buffer), buffer.remaining());
+    }
+
+    public static void munlock(ByteBuffer buffer) {
+        munlock(DirectCLibrary.pointer(buffer), buffer.remaining());
+    }
+
+    /**
+     * posix_fadvise on an open file, e.g. FileInputStream.getFD()
+     * <p>
+     * NOTE: reads the private FileDescriptor.fd, on jdk 9+ the jvm needs --add-opens java.base/java.io=ALL-UNNAMED
+     *
+     * @param len 0 = to the end of the file
+     * @throws UnsupportedOperationException the fd number is not accessible(see isFdAccessible())
+     */
+    public static void fadvise(FileDescriptor fd, long offset, long len, int advice) {
+        fadvise(fd(fd), offset, len, advice);
+    }
+
+    /**
+     * posix_fadvise on a file descriptor number
+     *
+     * @param len 0 = to the end of the file
+     */
+    public static void fadvise(int fd, long offset, long len, int advice) {
+        int error = posix_fadvise(fd, offset, len, advice);
+        if (error != 0) {
+            throw new LastErrorException(error);
+        }
+    }
+
+    /**
+     * whether fadvise(FileDescriptor, ...) can read the fd number
+     */
+    public static boolean isFdAccessible() {
+        return FD_FIELD != null;
+    }
+
+    static int fd(FileDescriptor fd) {
+        if (FD_FIELD == null) {
+            throw new UnsupportedOperationException("file descriptor number not accessible, "
+                    + "run with --add-opens java.base/java.io=ALL-UNNAMED");
+        }
+        try {
+            return FD_FIELD.getInt(fd);
+        } catch (IllegalAccessException e) {
+            throw new UnsupportedOperationException(e);
+        }
+    }
+
+    /**
+     * restrict the calling thread to the given cpus
+     */
+    public static void setAffinity(BitSet cpus) {
+        long[] bits = cpus.toLongArray();
+        if (bits.length > CPU_SET_LONGS) {
+            throw new IllegalArgumentException("cpu index beyond " + (CPU_SET_LONGS * 64 - 1));
+        }
+        long[] mask = Arrays.copyOf(bits, CPU_SET_LONGS);
+        sched_setaffinity(0, mask.length * 8L, mask);
+    }
+
+    public static void pinCurrentThread(int cpu) {
+        BitSet cpus = new BitSet();
+        cpus.set(cpu);
+        setAffinity(cpus);
+    }
+
+    /**
+     * cpus the calling thread may run on
+     */
+    public static BitSet getAffinity() {
+        long[] mask = new long[CPU_SET_LONGS];
+        sched_getaffinity(0, mask.length * 8L, mask);
+        return BitSet.valueOf(mask);
+    }
+}
@@ -0,0 +1,88 @@
+package com.java.api.resilience;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * absolute point in time by which a call (and every downstream call it makes) must complete.
+ * <p>
+ * NOTE:
+ * 1. measured on System.nanoTime(), so it is immune to wall-clock adjustments
+ * 2. bound to the current thread by RequestExecutor, so nested calls can pick it up via Deadline.current()
+ * 3. propagated to remote services through the HEADER as epoch millis
+ */
+public final class Deadline {
+    public static final String HEADER = "X-Request-Deadline";
+
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    private final long expireAtNanos;
+
+    private Deadline(long expireAtNanos) {
+        this.expireAtNanos = expireAtNanos;
+    }
+
+    public static Deadline after(long timeout, TimeUnit unit) {
+        return new Deadline(System.nanoTime() + unit.toNanos(timeout));
+    }
+
+    /**
+     * restore a deadline received from an upstream service
+     *
+     * @param header epoch millis, as written by toHeader()
+     * @return null if the header is absent or malformed
+     */
+    public static Deadline fromHeader(String header) {
+        if (header == null) {
+            return null;
+        }
+        try {
+            long remainMillis = Long.parseLong(header.trim()) - System.currentTimeMillis();
+            return after(remainMillis, TimeUnit.MILLISECONDS);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * the deadline bound to the current thread, or null
+     */
+    public static Deadline current() {
+        return CURRENT.get();
+    }
+
+    static void bind(Deadline deadline) {
+        if (deadline == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(deadline);
+        }
+    }
+
+    public long remaining(TimeUnit unit) {
+        long remain = expireAtNanos - System.nanoTime();
+        return remain <= 0 ? 0 : unit.convert(remain, TimeUnit.NANOSECONDS);
+    }
+
+    public boolean isExpired() {
+        return expireAtNanos - System.nanoTime() <= 0;
+    }
+
+    /**
+     * the earlier of the two deadlines; a nested call never gets more time than its caller
+     */
+    public Deadline min(Deadline other) {
+        if (other == null) {
+            return this;
+        }
+        return expireAtNanos - other.expireAtNanos <= 0 ? this : other;
+    }
+
+    public String toHeader() {
+        return String.valueOf(System.currentTimeMillis() + remaining(TimeUnit.MILLISECONDS));
+    }
+
+    @Override
+    public String toString() {
+        return "Deadline{remaining=" + remaining(TimeUnit.MILLISECONDS) + "ms}";
+    }
+}
@@ -0,0 +1,95 @@
+package com.java.api.resilience;
+
+/**
+ * settings of RequestExecutor
+ * <p>
+ * concurrency limit(per host):
+ * 1. starts at initialLimit and moves between [minLimit, maxLimit]
+ * 2. smoothing: weight of the newly computed limit, (0, 1]
+ * hedging:
+ * 1. a second attempt is fired when the first one is slower than the hedgePercentile latency of the host
+ * 2. never earlier than minHedgeDelayMillis, and only after minSamples latencies are recorded
+ */
+public class ExecutionPolicy {
+    int initialLimit = 20;
+    int minLimit = 1;
+    int maxLimit = 200;
+    double smoothing = 0.2;
+    boolean hedgeEnabled = false;
+    double hedgePercentile = 0.95;
+    long minHedgeDelayMillis = 5;
+    int minSamples = 100;
+    long defaultTimeoutMillis = 3000;
+
+    public int getInitialLimit() {
+        return initialLimit;
+    }
+
+    public void setInitialLimit(int initialLimit) {
+        this.initialLimit = initialLimit;
+    }
+
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    public void setMinLimit(int minLimit) {
+        this.minLimit = minLimit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    public void setMaxLimit(int maxLimit) {
+        this.maxLimit = maxLimit;
+    }
+
+    public double getSmoothing() {
+        return smoothing;
+    }
+
+    public void setSmoothing(double smoothing) {
+        this.smoothing = smoothing;
+    }
+
+    public boolean isHedgeEnabled() {
+        return hedgeEnabled;
+    }
+
+    public void setHedgeEnabled(boolean hedgeEnabled) {
+        this.hedgeEnabled = hedgeEnabled;
+    }
+
+    public double getHedgePercentile() {
+        return hedgePercentile;
+    }
+
+    public void setHedgePercentile(double hedgePercentile) {
+        this.hedgePercentile = hedgePercentile;
+    }
+
+    public long getMinHedgeDelayMillis() {
+        return minHedgeDelayMillis;
+    }
+
+    public void setMinHedgeDelayMillis(long minHedgeDelayMillis) {
+        this.minHedgeDelayMillis = minHedgeDelayMillis;
+    }
+
+    public int getMinSamples() {
+        return minSamples;
+    }
+
+    public void setMinSamples(int minSamples) {
+        this.minSamples = minSamples;
+    }
+
+    public long getDefaultTimeoutMillis() {
+        return defaultTimeoutMillis;
+    }
+
+    public void setDefaultTimeoutMillis(long defaultTimeoutMillis) {
+        this.defaultTimeoutMillis = defaultTimeoutMillis;
+    }
+}
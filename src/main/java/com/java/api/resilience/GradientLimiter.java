@@ -0,0 +1,100 @@
+package com.java.api.resilience;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * adaptive concurrency limit of ONE host, driven by the latency gradient:
+ * <pre>
+ *     gradient = clamp(minRtt / rtt, 0.5, 1)
+ *     newLimit = limit * gradient + sqrt(limit)
+ * </pre>
+ * when latency grows beyond the no-load rtt the gradient drops below 1 and the limit shrinks, so callers are
+ * rejected fast instead of queueing behind a degraded upstream. sqrt(limit) is the allowed queue, which lets the
+ * limit probe upwards while the host stays healthy. timeouts/failures cut the limit multiplicatively.
+ * <p>
+ * NOTE: minRtt is re-measured every RESET_SAMPLES samples, so the limiter can follow a host whose baseline
+ * latency changes permanently.
+ */
+public class GradientLimiter {
+    private static final int RESET_SAMPLES = 1000;
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile double limit;
+    private long minRttNanos = Long.MAX_VALUE;
+    private int samples;
+
+    public GradientLimiter(ExecutionPolicy policy) {
+        this.minLimit = policy.getMinLimit();
+        this.maxLimit = policy.getMaxLimit();
+        this.smoothing = policy.getSmoothing();
+        this.limit = policy.getInitialLimit();
+    }
+
+    /**
+     * @return false if the host is already running 'limit' requests
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * must be called exactly once per successful tryAcquire()
+     *
+     * @param rttNanos round trip time of the request
+     * @param dropped  true if the request timed out or failed, its rtt is not a valid sample then
+     */
+    public void release(long rttNanos, boolean dropped) {
+        int current = inFlight.getAndDecrement();
+        update(rttNanos, dropped, current);
+    }
+
+    /**
+     * give the permit back without a sample, e.g. for the losing attempt of a hedged request that got cancelled
+     */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    private synchronized void update(long rttNanos, boolean dropped, int inFlightBefore) {
+        double newLimit;
+        if (dropped) {
+            newLimit = limit * BACKOFF_RATIO;
+        } else {
+            if (++samples >= RESET_SAMPLES) {
+                samples = 0;
+                minRttNanos = rttNanos;
+            } else if (rttNanos < minRttNanos) {
+                minRttNanos = rttNanos;
+            }
+            // app-limited: the limit was not reached, so latency tells nothing about a bigger one
+            if (inFlightBefore < limit / 2) {
+                return;
+            }
+            double gradient = Math.max(0.5, Math.min(1.0, (double) minRttNanos / rttNanos));
+            newLimit = limit * gradient + Math.sqrt(limit);
+        }
+        newLimit = limit * (1 - smoothing) + newLimit * smoothing;
+        limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
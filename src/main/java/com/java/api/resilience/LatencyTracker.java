@@ -0,0 +1,49 @@
+package com.java.api.resilience;
+
+import java.util.Arrays;
+
+/**
+ * latency percentiles over the last WINDOW requests of a host, used to decide the hedge delay
+ * <p>
+ * NOTE: percentiles are re-computed (copy + sort) at most once every REFRESH_INTERVAL records, the rest of the
+ * reads hit the cached value.
+ */
+public class LatencyTracker {
+    private static final int WINDOW = 1024;
+    private static final int REFRESH_INTERVAL = 64;
+
+    private final long[] samples = new long[WINDOW];
+    private long count;
+    private long refreshedAt = -1;
+    private double cachedPercentile;
+    private long cachedValue;
+
+    public synchronized void record(long nanos) {
+        samples[(int) (count++ % WINDOW)] = nanos;
+    }
+
+    public synchronized long count() {
+        return count;
+    }
+
+    /**
+     * @param percentile e.g. 0.95
+     * @return latency in nanos, 0 if nothing was recorded yet
+     */
+    public synchronized long percentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        if (refreshedAt >= 0 && count - refreshedAt < REFRESH_INTERVAL && cachedPercentile == percentile) {
+            return cachedValue;
+        }
+        int size = (int) Math.min(count, WINDOW);
+        long[] sorted = Arrays.copyOf(samples, size);
+        Arrays.sort(sorted);
+        int idx = (int) Math.min(size - 1, Math.ceil(percentile * size) - 1);
+        cachedValue = sorted[Math.max(0, idx)];
+        cachedPercentile = percentile;
+        refreshedAt = count;
+        return cachedValue;
+    }
+}
@@ -0,0 +1,190 @@
+package com.java.api.resilience;
+
+import org.apache.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * request-execution layer shared by the http clients(HttpClientDemo, UnirestDemo)
+ * <p>
+ * POINTS:
+ * 1. adaptive concurrency limit per host(GradientLimiter): requests over the limit are rejected at once
+ * 2. deadline: every call is bounded by a Deadline, which is also bound to the worker thread so nested calls
+ * inherit it(and never exceed it)
+ * 3. hedging(optional): if the first attempt is slower than the p95 latency of the host, a second attempt is
+ * fired and the first response wins
+ */
+public class RequestExecutor {
+    static final Logger logger = Logger.getLogger(RequestExecutor.class);
+
+    private final ExecutionPolicy policy;
+    private final ExecutorService pool;
+    private final ConcurrentMap<String, GradientLimiter> limiters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LatencyTracker> trackers = new ConcurrentHashMap<>();
+
+    public RequestExecutor(ExecutionPolicy policy) {
+        // unbounded on purpose: the real bound is the sum of the per-host limits
+        this(policy, new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60L, TimeUnit.SECONDS,
+                new SynchronousQueue<Runnable>(), new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "request-executor");
+                t.setDaemon(true);
+                return t;
+            }
+        }));
+    }
+
+    public RequestExecutor(ExecutionPolicy policy, ExecutorService pool) {
+        this.policy = policy;
+        this.pool = pool;
+    }
+
+    /**
+     * execute with the default timeout of the policy(or less, if the current thread already has a deadline)
+     */
+    public <T> T execute(String host, Callable<T> call) throws Exception {
+        return execute(host, Deadline.after(policy.getDefaultTimeoutMillis(), TimeUnit.MILLISECONDS), call);
+    }
+
+    /**
+     * @param host     key of the concurrency limit and latency statistics
+     * @param deadline the call must complete before it
+     * @param call     the actual request, it can read the deadline through Deadline.current()
+     * @return result of the first attempt that succeeds
+     * @throws RejectedExecutionException the concurrency limit of the host is reached
+     * @throws TimeoutException           the deadline is exceeded
+     * @throws Exception                  thrown by the call itself
+     */
+    public <T> T execute(String host, Deadline deadline, Callable<T> call) throws Exception {
+        final Deadline effective = deadline.min(Deadline.current());
+        if (effective.isExpired()) {
+            throw new TimeoutException("deadline exceeded before calling " + host);
+        }
+        GradientLimiter limiter = limiter(host);
+        LatencyTracker tracker = tracker(host);
+        if (!limiter.tryAcquire()) {
+            throw new RejectedExecutionException(String.format("concurrency limit(%s) of %s reached",
+                    limiter.getLimit(), host));
+        }
+        AtomicBoolean settled = new AtomicBoolean();
+        CompletionService<T> completion = new ExecutorCompletionService<>(pool);
+        List<Future<T>> attempts = new ArrayList<>(2);
+        try {
+            attempts.add(completion.submit(attempt(limiter, tracker, effective, settled, call)));
+            long hedgeDelay = hedgeDelayNanos(tracker);
+            boolean hedged = hedgeDelay <= 0;
+            int pending = 1;
+            Exception failure = null;
+            while (pending > 0) {
+                long remain = effective.remaining(TimeUnit.NANOSECONDS);
+                if (remain <= 0) {
+                    break;
+                }
+                Future<T> done = completion.poll(hedged ? remain : Math.min(remain, hedgeDelay), TimeUnit.NANOSECONDS);
+                if (done == null) {
+                    if (!hedged) {
+                        hedged = true;
+                        if (limiter.tryAcquire()) {
+                            logger.debug("hedge request to " + host);
+                            attempts.add(completion.submit(attempt(limiter, tracker, effective, settled, call)));
+                            pending++;
+                        }
+                    }
+                    continue;
+                }
+                pending--;
+                T ret;
+                try {
+                    ret = done.get();
+                } catch (ExecutionException e) {
+                    failure = e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+                    continue;
+                }
+                // only now the other attempt lost the race; attempts cancelled by the deadline count as drops
+                settled.set(true);
+                return ret;
+            }
+            if (failure != null && pending == 0) {
+                throw failure;
+            }
+            throw new TimeoutException(String.format("deadline exceeded when calling %s", host));
+        } finally {
+            for (Future<T> f : attempts) {
+                f.cancel(true);
+            }
+        }
+    }
+
+    private <T> Callable<T> attempt(final GradientLimiter limiter, final LatencyTracker tracker,
+                                    final Deadline deadline, final AtomicBoolean settled, final Callable<T> call) {
+        return new Callable<T>() {
+            @Override
+            public T call() throws Exception {
+                long start = System.nanoTime();
+                boolean failed = true;
+                Deadline.bind(deadline);
+                try {
+                    T ret = call.call();
+                    failed = false;
+                    return ret;
+                } finally {
+                    Deadline.bind(null);
+                    long rtt = System.nanoTime() - start;
+                    if (!failed) {
+                        tracker.record(rtt);
+                        limiter.release(rtt, false);
+                    } else if (settled.get()) {
+                        // cancelled because the other attempt already won: not a signal of overload
+                        limiter.release();
+                    } else {
+                        limiter.release(rtt, true);
+                    }
+                }
+            }
+        };
+    }
+
+    private long hedgeDelayNanos(LatencyTracker tracker) {
+        if (!policy.isHedgeEnabled() || tracker.count() < policy.getMinSamples()) {
+            return 0;
+        }
+        return Math.max(tracker.percentile(policy.getHedgePercentile()),
+                TimeUnit.MILLISECONDS.toNanos(policy.getMinHedgeDelayMillis()));
+    }
+
+    private GradientLimiter limiter(String host) {
+        GradientLimiter limiter = limiters.get(host);
+        if (limiter == null) {
+            GradientLimiter created = new GradientLimiter(policy);
+            limiter = limiters.putIfAbsent(host, created);
+            if (limiter == null) {
+                limiter = created;
+            }
+        }
+        return limiter;
+    }
+
+    private LatencyTracker tracker(String host) {
+        LatencyTracker tracker = trackers.get(host);
+        if (tracker == null) {
+            LatencyTracker created = new LatencyTracker();
+            tracker = trackers.putIfAbsent(host, created);
+            if (tracker == null) {
+                tracker = created;
+            }
+        }
+        return tracker;
+    }
+
+    public int getLimit(String host) {
+        return limiter(host).getLimit();
+    }
+
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+}
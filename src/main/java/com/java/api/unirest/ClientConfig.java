@@ -0,0 +1,46 @@
+package com.java.api.unirest;
+
+/**
+ * settings of UnirestClient
+ * <p>
+ * 1. maxTotal/maxPerRoute: connection pool size of both the sync and the async client
+ * 2. connectTimeout/socketTimeout: in millis, 0 means infinite
+ */
+public class ClientConfig {
+    int maxTotal = 200;
+    int maxPerRoute = 20;
+    long connectTimeout = 3000;
+    long socketTimeout = 10000;
+
+    public int getMaxTotal() {
+        return maxTotal;
+    }
+
+    public void setMaxTotal(int maxTotal) {
+        this.maxTotal = maxTotal;
+    }
+
+    public int getMaxPerRoute() {
+        return maxPerRoute;
+    }
+
+    public void setMaxPerRoute(int maxPerRoute) {
+        this.maxPerRoute = maxPerRoute;
+    }
+
+    public long getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public void setConnectTimeout(long connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    public long getSocketTimeout() {
+        return socketTimeout;
+    }
+
+    public void setSocketTimeout(long socketTimeout) {
+        this.socketTimeout = socketTimeout;
+    }
+}
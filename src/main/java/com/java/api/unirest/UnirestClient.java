@@ -0,0 +1,175 @@
+package com.java.api.unirest;
+
+import com.java.api.jackson.JsonMappers;
+import com.mashape.unirest.http.HttpResponse;
+import com.mashape.unirest.http.ObjectMapper;
+import com.mashape.unirest.http.Unirest;
+import com.mashape.unirest.http.async.Callback;
+import com.mashape.unirest.http.exceptions.UnirestException;
+import com.mashape.unirest.request.BaseRequest;
+import com.mashape.unirest.request.GetRequest;
+import com.mashape.unirest.request.HttpRequest;
+import com.mashape.unirest.request.HttpRequestWithBody;
+import org.apache.log4j.Logger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * explicitly configured Unirest, with async calls and jackson mapping
+ * <p>
+ * POINTS:
+ * 1. pool size and timeouts come from ClientConfig instead of the hidden defaults
+ * 2. requests run on the async client(asBinaryAsync) and return CompletableFutures, no caller thread is blocked
+ * 3. responses are bound by the shared jackson readers(JsonMappers), not parsed into org.json first. the same
+ * mapper is installed as Unirest's ObjectMapper, so request.body(Object)/asObject(...) agree with it
+ * 4. close() shuts the clients down; a jvm shutdown hook does it too if the owner forgets
+ * <p>
+ * NOTE: Unirest 1.x keeps its clients in static options, so there can only be ONE open UnirestClient per jvm; it
+ * owns that global state. create it once at startup and share it.
+ */
+public class UnirestClient implements Closeable {
+    static final Logger logger = Logger.getLogger(UnirestClient.class);
+
+    private static final AtomicBoolean OPEN = new AtomicBoolean();
+
+    private final Thread shutdownHook;
+
+    public UnirestClient(ClientConfig config) {
+        if (!OPEN.compareAndSet(false, true)) {
+            throw new IllegalStateException("a UnirestClient is already open, Unirest supports only one configuration");
+        }
+        // each of them rebuilds the sync+async clients, the last one wins with all the options
+        Unirest.setObjectMapper(new JacksonObjectMapper());
+        Unirest.setConcurrency(config.getMaxTotal(), config.getMaxPerRoute());
+        Unirest.setTimeouts(config.getConnectTimeout(), config.getSocketTimeout());
+        shutdownHook = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                shutdown();
+            }
+        }, "unirest-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    /**
+     * async GET, the response body is bound to 'type'
+     */
+    public <T> CompletableFuture<T> getAsync(String url, Map<String, String> headers, Map<String, String> rtParams,
+                                             Map<String, Object> params, Class<T> type) {
+        GetRequest request = Unirest.get(url);
+        prepare(request, headers, rtParams);
+        if (params != null) {
+            request.queryString(params);
+        }
+        return send(request, type);
+    }
+
+    /**
+     * async POST of a json body, the response body is bound to 'type'
+     */
+    public <T> CompletableFuture<T> postAsync(String url, Map<String, String> headers, Map<String, String> rtParams,
+                                              Object body, Class<T> type) {
+        HttpRequestWithBody request = Unirest.post(url);
+        prepare(request, headers, rtParams);
+        request.header("Content-Type", "application/json");
+        try {
+            return send(request.body(JsonMappers.writer(body.getClass()).writeValueAsBytes(body)), type);
+        } catch (IOException e) {
+            CompletableFuture<T> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+    }
+
+    private static void prepare(HttpRequest request, Map<String, String> headers, Map<String, String> rtParams) {
+        if (headers != null) {
+            request.headers(headers);
+        }
+        if (rtParams != null) {
+            for (Map.Entry<String, String> entry : rtParams.entrySet()) {
+                request.routeParam(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    private <T> CompletableFuture<T> send(final BaseRequest request, final Class<T> type) {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        request.asBinaryAsync(new Callback<InputStream>() {
+            @Override
+            public void completed(HttpResponse<InputStream> response) {
+                int status = response.getStatus();
+                if (status < 200 || status >= 300) {
+                    future.completeExceptionally(new UnirestException(String.format("%s %s: status %s",
+                            request.getHttpRequest().getHttpMethod(), request.getHttpRequest().getUrl(), status)));
+                    return;
+                }
+                try (InputStream body = response.getBody()) {
+                    future.complete(status == 204 || body == null ? null : JsonMappers.reader(type).<T>readValue(body));
+                } catch (IOException e) {
+                    future.completeExceptionally(e);
+                }
+            }
+
+            @Override
+            public void failed(UnirestException e) {
+                future.completeExceptionally(e);
+            }
+
+            @Override
+            public void cancelled() {
+                future.cancel(false);
+            }
+        });
+        return future;
+    }
+
+    @Override
+    public void close() {
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException ignore) {
+            // already shutting down, the hook does the job
+            return;
+        }
+        shutdown();
+    }
+
+    private void shutdown() {
+        if (!OPEN.compareAndSet(true, false)) {
+            return;
+        }
+        try {
+            Unirest.shutdown();
+        } catch (IOException e) {
+            logger.error("error when shutting down unirest", e);
+        }
+    }
+
+    /**
+     * Unirest's ObjectMapper(used by request.body(Object), asObject(...)) backed by JsonMappers
+     */
+    static class JacksonObjectMapper implements ObjectMapper {
+        @Override
+        public <T> T readValue(String value, Class<T> valueType) {
+            try {
+                return JsonMappers.reader(valueType).readValue(value);
+            } catch (IOException e) {
+                throw new IllegalArgumentException(e);
+            }
+        }
+
+        @Override
+        public String writeValue(Object value) {
+            try {
+                return JsonMappers.writer(value.getClass()).writeValueAsString(value);
+            } catch (IOException e) {
+                throw new IllegalArgumentException(e);
+            }
+        }
+    }
+}
@@ -1,6 +1,10 @@
 package com.java.api.unirest;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.java.api.jackson.Codec;
+import com.java.api.jackson.JsonMappers;
+import com.java.api.resilience.Deadline;
+import com.java.api.resilience.ExecutionPolicy;
+import com.java.api.resilience.RequestExecutor;
 import com.mashape.unirest.http.HttpResponse;
 import com.mashape.unirest.http.JsonNode;
 import com.mashape.unirest.http.Unirest;
@@ -9,15 +13,52 @@ import com.mashape.unirest.request.GetRequest;
 import com.mashape.unirest.request.HttpRequestWithBody;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Unirest 是一个轻量级的 HTTP 请求库，涵盖 Node、Ruby、Java、PHP、Python、Objective-C、.NET 等多种语言。可发起 GET, POST, PUT, PATCH, DELETE,
  * HEAD, OPTIONS 请求。
  * <p>
+ * NOTE: doGet/doPost run on the shared UnirestClient(client()): explicit pool sizing and timeouts, async calls,
+ * responses bound by jackson. Unirest keeps one global configuration, so the other methods below use the same
+ * pool and timeouts once client() was called.
+ * <p>
  * Created by kevintian on 2017/9/20.
  */
 public class UnirestDemo {
+    static final RequestExecutor EXECUTOR;
+
+    static {
+        ExecutionPolicy policy = new ExecutionPolicy();
+        policy.setHedgeEnabled(true);
+        EXECUTOR = new RequestExecutor(policy);
+    }
+
+    /**
+     * Map.class, typed: jackson binds a json object read as Map to a LinkedHashMap&lt;String, Object&gt;
+     */
+    @SuppressWarnings("unchecked")
+    private static final Class<Map<String, Object>> JSON_OBJECT = (Class<Map<String, Object>>) (Class<?>) Map.class;
+
+    /**
+     * the configured client of this jvm(Unirest supports only one), created on first use and closed by its
+     * shutdown hook
+     */
+    static UnirestClient client() {
+        return ClientHolder.CLIENT;
+    }
+
+    private static final class ClientHolder {
+        static final UnirestClient CLIENT = new UnirestClient(new ClientConfig());
+    }
+
     /**
      * do get request
      *
@@ -25,25 +66,54 @@ public class UnirestDemo {
      * @param headers
      * @param rtParams
      * @param params
+     * @return json response body as a map, completes exceptionally on a non-2xx status
+     */
+    static CompletableFuture<Map<String, Object>> doGet(String url, Map<String, String> headers,
+                                                        Map<String, String> rtParams, Map<String, Object> params) {
+        return client().getAsync(url, headers, rtParams, params, JSON_OBJECT);
+    }
+
+    /**
+     * do get request, guarded by a per-host concurrency limit and a deadline(hedged on slow responses)
+     *
+     * @param timeoutMillis the whole call, including a possible hedge, completes within it
      * @return
-     * @throws UnirestException
+     * @throws Exception RejectedExecutionException if the host is overloaded, TimeoutException on deadline
      */
-    static HttpResponse<JsonNode> doGet(String url, Map<String, String> headers, Map<String, String> rtParams,
-                                        Map<String, Object>
-                                                params) throws UnirestException {
-        GetRequest request = Unirest.get(url);
-        if (headers != null) {
-            request.headers(headers);
-        }
-        if (rtParams != null) {
-            for (Map.Entry<String, String> entry : rtParams.entrySet()) {
-                request.routeParam(entry.getKey(), entry.getValue());
-            }
-        }
-        if (params != null) {
-            request.queryString(params);
-        }
-        return request.asJson();
+    static HttpResponse<JsonNode> guardedGet(final String url, final Map<String, String> headers,
+                                             final Map<String, String> rtParams, final Map<String, Object> params,
+                                             long timeoutMillis) throws Exception {
+        String host = URI.create(url.replaceAll("[{}]", "")).getHost();
+        return EXECUTOR.execute(host, Deadline.after(timeoutMillis, TimeUnit.MILLISECONDS),
+                new Callable<HttpResponse<JsonNode>>() {
+                    @Override
+                    public HttpResponse<JsonNode> call() throws Exception {
+                        GetRequest request = Unirest.get(url);
+                        request.header(Deadline.HEADER, Deadline.current().toHeader());
+                        if (headers != null) {
+                            request.headers(headers);
+                        }
+                        if (rtParams != null) {
+                            for (Map.Entry<String, String> entry : rtParams.entrySet()) {
+                                request.routeParam(entry.getKey(), entry.getValue());
+                            }
+                        }
+                        if (params != null) {
+                            request.queryString(params);
+                        }
+                        // Unirest 1.x has no per-request timeouts: wait on the async call for what is left of the
+                        // deadline, then cancel it, which aborts the exchange and frees the connection
+                        Future<HttpResponse<JsonNode>> response = request.asJsonAsync();
+                        try {
+                            return response.get(Deadline.current().remaining(TimeUnit.NANOSECONDS),
+                                    TimeUnit.NANOSECONDS);
+                        } catch (ExecutionException e) {
+                            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+                        } finally {
+                            response.cancel(true);
+                        }
+                    }
+                });
     }
 
     /**
@@ -53,23 +123,41 @@ public class UnirestDemo {
      * @param headers
      * @param rtParams
      * @param bdParams
-     * @return
+     * @return json response body as a map, completes exceptionally on a non-2xx status
+     */
+    static CompletableFuture<Map<String, Object>> doPost(String url, Map<String, String> headers,
+                                                         Map<String, String> rtParams, Map<String, Object> bdParams) {
+        return client().postAsync(url, headers, rtParams, bdParams, JSON_OBJECT);
+    }
+
+    /**
+     * do POST request with the body in the given wire format, e.g. Codec.SMILE between internal services
+     *
+     * @param url
+     * @param headers
+     * @param rtParams
+     * @param bdParams
+     * @param codec
+     * @return raw response, decode it with Codec.forContentType(Content-Type of the response)
      * @throws UnirestException
      * @throws IOException
      */
-    static HttpResponse<JsonNode> doPost(String url, Map<String, String> headers, Map<String, String> rtParams,
-                                         Map<String, Object> bdParams) throws UnirestException, IOException {
+    static HttpResponse<InputStream> doPost(String url, Map<String, String> headers, Map<String, String> rtParams,
+                                            Map<String, Object> bdParams, Codec codec)
+            throws UnirestException, IOException {
         HttpRequestWithBody request = Unirest.post(url);
         if (headers != null) {
             request.headers(headers);
         }
+        request.header("Content-Type", codec.getContentType());
+        request.header("Accept", codec.getContentType());
         if (rtParams != null) {
             for (Map.Entry<String, String> entry : rtParams.entrySet()) {
                 request.routeParam(entry.getKey(), entry.getValue());
             }
         }
-        request.body(new ObjectMapper().writeValueAsString(bdParams));
-        return request.asJson();
+        request.body(codec.encode(bdParams));
+        return request.asBinary();
     }
 
     /**
@@ -94,7 +182,7 @@ public class UnirestDemo {
                 request.routeParam(entry.getKey(), entry.getValue());
             }
         }
-        request.body(new ObjectMapper().writeValueAsString(bdParams));
+        request.body(JsonMappers.writer(Map.class).writeValueAsString(bdParams));
         return request.asJson();
     }
 
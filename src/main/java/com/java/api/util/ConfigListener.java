@@ -0,0 +1,8 @@
+package com.java.api.util;
+
+/**
+ * called after a config file was reloaded, in the watcher thread; keep it short
+ */
+public interface ConfigListener {
+    void onReload(ConfigSnapshot previous, ConfigSnapshot current);
+}
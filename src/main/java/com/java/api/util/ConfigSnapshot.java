@@ -0,0 +1,174 @@
+package com.java.api.util;
+
+import org.apache.log4j.Logger;
+
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * one immutable version of a properties file
+ * <p>
+ * NOTE:
+ * 1. the values are copied into a plain HashMap once, reads don't lock(unlike Properties, a Hashtable)
+ * 2. typed values are parsed on first use and cached IN the snapshot: a reload brings new caches, nothing is
+ * invalidated by hand; a repeated getInt(...) is a map lookup, no parsing
+ * 3. a value that can't be parsed logs a warning once and reads as the default
+ */
+public final class ConfigSnapshot {
+    static final Logger logger = Logger.getLogger(ConfigSnapshot.class);
+
+    public static final ConfigSnapshot EMPTY = new ConfigSnapshot(new Properties());
+
+    /**
+     * cached marker of an unparsable value
+     */
+    private static final Object INVALID = new Object();
+
+    private final Map<String, String> values;
+    private final long loadedAt = System.currentTimeMillis();
+    private final ConcurrentHashMap<String, Object> ints = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Object> longs = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Object> booleans = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Object> durations = new ConcurrentHashMap<>();
+
+    public ConfigSnapshot(Properties properties) {
+        Map<String, String> copy = new HashMap<>();
+        for (String name : properties.stringPropertyNames()) {
+            copy.put(name, properties.getProperty(name).trim());
+        }
+        this.values = Collections.unmodifiableMap(copy);
+    }
+
+    public String getString(String key) {
+        return values.get(key);
+    }
+
+    public String getString(String key, String defaultValue) {
+        String value = values.get(key);
+        return value == null ? defaultValue : value;
+    }
+
+    public int getInt(String key, int defaultValue) {
+        Object value = parsed(ints, key, Kind.INT);
+        return value instanceof Integer ? (Integer) value : defaultValue;
+    }
+
+    public long getLong(String key, long defaultValue) {
+        Object value = parsed(longs, key, Kind.LONG);
+        return value instanceof Long ? (Long) value : defaultValue;
+    }
+
+    /**
+     * true/false/yes/no/on/off, case-insensitive
+     */
+    public boolean getBoolean(String key, boolean defaultValue) {
+        Object value = parsed(booleans, key, Kind.BOOLEAN);
+        return value instanceof Boolean ? (Boolean) value : defaultValue;
+    }
+
+    /**
+     * "500ms", "10s", "5m", "2h", "1d", iso-8601("PT10S"), or a plain number of millis
+     */
+    public Duration getDuration(String key, Duration defaultValue) {
+        Object value = parsed(durations, key, Kind.DURATION);
+        return value instanceof Duration ? (Duration) value : defaultValue;
+    }
+
+    public Map<String, String> asMap() {
+        return values;
+    }
+
+    /**
+     * epoch millis when this snapshot was created
+     */
+    public long getLoadedAt() {
+        return loadedAt;
+    }
+
+    private Object parsed(ConcurrentHashMap<String, Object> cache, String key, Kind kind) {
+        Object value = cache.get(key);
+        if (value == null) {
+            String text = values.get(key);
+            if (text == null) {
+                // missing keys are not cached: they cost one lookup in each map
+                return null;
+            }
+            value = parse(key, text, kind);
+            cache.putIfAbsent(key, value);
+        }
+        return value;
+    }
+
+    private enum Kind {
+        INT, LONG, BOOLEAN, DURATION
+    }
+
+    private static Object parse(String key, String text, Kind kind) {
+        try {
+            switch (kind) {
+                case INT:
+                    return Integer.valueOf(text);
+                case LONG:
+                    return Long.valueOf(text);
+                case BOOLEAN:
+                    return parseBoolean(text);
+                default:
+                    return parseDuration(text);
+            }
+        } catch (IllegalArgumentException | DateTimeParseException | ArithmeticException e) {
+            logger.warn(String.format("config '%s' = '%s' is not a valid %s, the default is used", key, text,
+                    kind.name().toLowerCase()));
+            return INVALID;
+        }
+    }
+
+    private static Boolean parseBoolean(String text) {
+        switch (text.toLowerCase()) {
+            case "true":
+            case "yes":
+            case "on":
+                return Boolean.TRUE;
+            case "false":
+            case "no":
+            case "off":
+                return Boolean.FALSE;
+            default:
+                throw new IllegalArgumentException(text);
+        }
+    }
+
+    /**
+     * @throws ArithmeticException the amount overflows a Duration, e.g. Long.MAX_VALUE days
+     */
+    static Duration parseDuration(String text) {
+        String t = text.toLowerCase();
+        if (t.startsWith("p")) {
+            return Duration.parse(text);
+        }
+        int unit = 0;
+        while (unit < t.length() && (Character.isDigit(t.charAt(unit)) || t.charAt(unit) == '-')) {
+            unit++;
+        }
+        long amount = Long.parseLong(t.substring(0, unit).trim());
+        switch (t.substring(unit).trim()) {
+            case "":
+            case "ms":
+                return Duration.ofMillis(amount);
+            case "s":
+                return Duration.ofSeconds(amount);
+            case "m":
+                return Duration.ofMinutes(amount);
+            case "h":
+                return Duration.ofHours(amount);
+            case "d":
+                return Duration.ofDays(amount);
+            default:
+                throw new IllegalArgumentException("unknown unit: " + text);
+        }
+    }
+}
@@ -1,31 +1,51 @@
 package com.java.api.util;
 
-import org.apache.log4j.Logger;
-
-import java.io.IOException;
-import java.io.InputStream;
-import java.util.Properties;
+import java.time.Duration;
 
+/**
+ * 'config.properties' of the classpath
+ * <p>
+ * NOTE:
+ * 1. reads go to the current immutable snapshot(ReloadableConfig), typed values are parsed once per snapshot
+ * 2. watch() hot-reloads the file on change; listeners get the previous and the new snapshot
+ */
 public class ConfigUtil {
-    static Logger logger = Logger.getLogger(ConfigUtil.class);
-    static Properties properties;
-    static {
-        InputStream inputStream = ConfigUtil.class.getClassLoader().getResourceAsStream("config.properties");
-        try {
-            properties = new Properties();
-            properties.load(inputStream);
-        } catch (Exception e) {
-            logger.error("error when loading 'config.properties'", e);
-        } finally {
-            try {
-                inputStream.close();
-            } catch (IOException e) {
-                logger.error("error when loading 'config.properties'", e);
-            }
-        }
-    }
+    static final ReloadableConfig CONFIG = ReloadableConfig.fromClasspath("config.properties");
 
     public static String getProperty(String key) {
-        return properties.getProperty(key);
+        return CONFIG.getString(key);
+    }
+
+    public static int getInt(String key, int defaultValue) {
+        return CONFIG.getInt(key, defaultValue);
+    }
+
+    public static long getLong(String key, long defaultValue) {
+        return CONFIG.getLong(key, defaultValue);
+    }
+
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        return CONFIG.getBoolean(key, defaultValue);
+    }
+
+    public static Duration getDuration(String key, Duration defaultValue) {
+        return CONFIG.getDuration(key, defaultValue);
+    }
+
+    public static ConfigSnapshot snapshot() {
+        return CONFIG.snapshot();
+    }
+
+    public static void addListener(ConfigListener listener) {
+        CONFIG.addListener(listener);
+    }
+
+    /**
+     * start hot reloading
+     *
+     * @return false if config.properties is not a plain file(e.g. inside a jar)
+     */
+    public static boolean watch() {
+        return CONFIG.startWatching();
     }
 }
@@ -0,0 +1,238 @@
+package com.java.api.util;
+
+import org.apache.log4j.Logger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * a properties file published as immutable ConfigSnapshots, reloaded when the file changes
+ * <p>
+ * POINTS:
+ * 1. readers take the current snapshot from a volatile field: no lock, no copy
+ * 2. startWatching() watches the directory of the file(WatchService) in a daemon thread; a change builds a new
+ * snapshot, swaps it in and notifies the listeners
+ * 3. a file that can't be read or parsed(e.g. a bad unicode escape) keeps the previous snapshot(logged); so does
+ * an empty file while the previous snapshot had keys, the usual state of a file truncated before being rewritten
+ * <p>
+ * NOTE:
+ * 1. Properties.load accepts any prefix of a file, so a reload may still catch a partly written file. update the
+ * file atomically: write a temp file in the same directory, then rename it over the config
+ * 2. a classpath resource inside a jar can't be watched, it is loaded once
+ */
+public class ReloadableConfig implements Closeable {
+    static final Logger logger = Logger.getLogger(ReloadableConfig.class);
+
+    private final Path file;
+    private final CopyOnWriteArrayList<ConfigListener> listeners = new CopyOnWriteArrayList<>();
+    private volatile ConfigSnapshot snapshot;
+    private volatile WatchService watchService;
+
+    /**
+     * load file now, ConfigSnapshot.EMPTY if it can't be read
+     */
+    public ReloadableConfig(Path file) {
+        this.file = file.toAbsolutePath();
+        ConfigSnapshot loaded = load(this.file);
+        this.snapshot = loaded == null ? ConfigSnapshot.EMPTY : loaded;
+    }
+
+    private ReloadableConfig(ConfigSnapshot snapshot) {
+        this.file = null;
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * the resource as a watchable file if it is one(e.g. target/classes), else loaded once
+     */
+    public static ReloadableConfig fromClasspath(String resource) {
+        URL url = ReloadableConfig.class.getClassLoader().getResource(resource);
+        if (url == null) {
+            logger.error(String.format("'%s' not found on the classpath", resource));
+            return new ReloadableConfig(ConfigSnapshot.EMPTY);
+        }
+        if ("file".equals(url.getProtocol())) {
+            try {
+                return new ReloadableConfig(Paths.get(url.toURI()));
+            } catch (URISyntaxException e) {
+                logger.warn(String.format("'%s' can't be watched: %s", resource, url), e);
+            }
+        }
+        Properties properties = new Properties();
+        try (InputStream in = url.openStream()) {
+            properties.load(in);
+        } catch (IOException e) {
+            logger.error(String.format("error when loading '%s'", resource), e);
+        }
+        return new ReloadableConfig(new ConfigSnapshot(properties));
+    }
+
+    private static ConfigSnapshot load(Path file) {
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            properties.load(in);
+            return new ConfigSnapshot(properties);
+        } catch (IOException | IllegalArgumentException e) {
+            logger.error(String.format("error when loading '%s'", file), e);
+            return null;
+        }
+    }
+
+    public ConfigSnapshot snapshot() {
+        return snapshot;
+    }
+
+    public String getString(String key) {
+        return snapshot.getString(key);
+    }
+
+    public int getInt(String key, int defaultValue) {
+        return snapshot.getInt(key, defaultValue);
+    }
+
+    public long getLong(String key, long defaultValue) {
+        return snapshot.getLong(key, defaultValue);
+    }
+
+    public boolean getBoolean(String key, boolean defaultValue) {
+        return snapshot.getBoolean(key, defaultValue);
+    }
+
+    public Duration getDuration(String key, Duration defaultValue) {
+        return snapshot.getDuration(key, defaultValue);
+    }
+
+    public void addListener(ConfigListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(ConfigListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * re-read the file now; listeners are notified when a new snapshot is published
+     *
+     * @return false if the file could not be loaded(the previous snapshot stays)
+     */
+    public synchronized boolean reload() {
+        if (file == null) {
+            return false;
+        }
+        ConfigSnapshot loaded = load(file);
+        if (loaded == null) {
+            return false;
+        }
+        ConfigSnapshot previous = snapshot;
+        if (loaded.asMap().isEmpty() && !previous.asMap().isEmpty()) {
+            logger.warn(String.format("'%s' is empty, the previous config is kept", file));
+            return false;
+        }
+        snapshot = loaded;
+        for (ConfigListener listener : listeners) {
+            try {
+                listener.onReload(previous, loaded);
+            } catch (RuntimeException e) {
+                logger.error("config listener failed", e);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * start the watcher thread, at most once
+     *
+     * @return false if the config is not a watchable file
+     */
+    public synchronized boolean startWatching() {
+        if (file == null) {
+            return false;
+        }
+        if (watchService != null) {
+            return true;
+        }
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            file.getParent().register(watchService, StandardWatchEventKinds.ENTRY_MODIFY,
+                    StandardWatchEventKinds.ENTRY_CREATE);
+        } catch (IOException e) {
+            logger.error(String.format("can't watch '%s'", file), e);
+            watchService = null;
+            return false;
+        }
+        final WatchService service = watchService;
+        Thread watcher = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                watch(service);
+            }
+        }, "config-watcher-" + file.getFileName());
+        watcher.setDaemon(true);
+        watcher.start();
+        return true;
+    }
+
+    private void watch(WatchService service) {
+        Path name = file.getFileName();
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (name.equals(event.context())) {
+                        changed = true;
+                    }
+                }
+                key.reset();
+                if (changed) {
+                    // an editor may write in several steps: let it finish, and fold its events into one reload
+                    Thread.sleep(50);
+                    drain(service);
+                    if (reload()) {
+                        logger.info(String.format("'%s' reloaded", file));
+                    }
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // closed
+        }
+    }
+
+    private static void drain(WatchService service) {
+        WatchKey key;
+        while ((key = service.poll()) != null) {
+            key.pollEvents();
+            key.reset();
+        }
+    }
+
+    /**
+     * stop watching
+     */
+    @Override
+    public synchronized void close() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                logger.error("error when closing the config watcher", e);
+            }
+            watchService = null;
+        }
+    }
+}
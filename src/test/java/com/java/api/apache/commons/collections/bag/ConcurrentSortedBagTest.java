@@ -0,0 +1,121 @@
+package com.java.api.apache.commons.collections.bag;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ObjLongConsumer;
+import java.util.function.ToDoubleFunction;
+
+public class ConcurrentSortedBagTest {
+    /**
+     * price of element i is i / 10, so ten elements share a level
+     */
+    private static ConcurrentSortedBag<Integer> newBag() {
+        return new ConcurrentSortedBag<>(new ToDoubleFunction<Integer>() {
+            @Override
+            public double applyAsDouble(Integer e) {
+                return e / 10;
+            }
+        });
+    }
+
+    @Test
+    public void testAddRemove() {
+        ConcurrentSortedBag<Integer> bag = newBag();
+        bag.add(15, 3);
+        bag.add(17, 2);
+        bag.add(42, 5);
+        Assert.assertEquals(3, bag.getCount(15));
+        Assert.assertEquals(0, bag.getCount(16));
+        Assert.assertEquals(5, bag.rangeCount(1, 1));
+        Assert.assertEquals(1 * 5 + 4 * 5, bag.rangeValue(0, 10), 0);
+
+        Assert.assertEquals(2, bag.remove(17, 4));
+        Assert.assertEquals(0, bag.remove(17, 1));
+        Assert.assertEquals(0, bag.remove(99, 1));
+        Assert.assertEquals(3, bag.rangeCount(1, 1));
+        Assert.assertEquals(1.0, bag.firstKey(), 0);
+
+        Assert.assertEquals(3, bag.remove(15, 3));
+        Assert.assertEquals(4.0, bag.firstKey(), 0);
+        bag.purge();
+        Assert.assertEquals(0, bag.getCount(15));
+        // re-added after the purge of its level
+        bag.add(15, 1);
+        Assert.assertEquals(1, bag.rangeCount(1, 1));
+        Assert.assertEquals(1.0, bag.firstKey(), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeAdd() {
+        newBag().add(1, -1);
+    }
+
+    @Test
+    public void testIterationOrder() {
+        ConcurrentSortedBag<Integer> bag = newBag();
+        for (int e : new int[]{73, 5, 41, 29, 88}) {
+            bag.add(e, e);
+        }
+        final List<Integer> ascending = new ArrayList<>();
+        bag.forEach(new ObjLongConsumer<Integer>() {
+            @Override
+            public void accept(Integer e, long count) {
+                Assert.assertEquals((long) e, count);
+                ascending.add(e);
+            }
+        });
+        Assert.assertEquals(Arrays.asList(5, 29, 41, 73, 88), ascending);
+        final List<Integer> descending = new ArrayList<>();
+        bag.forEachDescending(new ObjLongConsumer<Integer>() {
+            @Override
+            public void accept(Integer e, long count) {
+                descending.add(e);
+            }
+        });
+        Assert.assertEquals(Arrays.asList(88, 73, 41, 29, 5), descending);
+    }
+
+    @Test
+    public void testConcurrentCounts() throws InterruptedException {
+        final ConcurrentSortedBag<Integer> bag = newBag();
+        final int threads = 8;
+        final int rounds = 100000;
+        final CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            final int seed = t;
+            pool.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int i = 0; i < rounds; i++) {
+                        int e = (i * 31 + seed) % 50;
+                        bag.add(e, 2);
+                        bag.remove(e, 1);
+                    }
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        Assert.assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+        Assert.assertEquals((long) threads * rounds, bag.rangeCount(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY));
+        long sum = 0;
+        for (int e = 0; e < 50; e++) {
+            sum += bag.getCount(e);
+        }
+        Assert.assertEquals((long) threads * rounds, sum);
+    }
+}
@@ -0,0 +1,60 @@
+package com.java.api.apache.commons.collections.bag;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class ObjectIntBagTest {
+
+    @Test
+    public void testAgainstHashMap() {
+        ObjectIntBag<Integer> bag = new ObjectIntBag<>();
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 200000; i++) {
+            Integer key = random.nextInt(5000);
+            int n = random.nextInt(5);
+            if (random.nextBoolean()) {
+                bag.add(key, n);
+                expected.merge(key, n, Integer::sum);
+            } else {
+                bag.remove(key, n);
+                Integer old = expected.get(key);
+                if (old != null) {
+                    expected.put(key, Math.max(0, old - n));
+                }
+            }
+            expected.values().remove(0);
+        }
+        long total = 0;
+        for (Map.Entry<Integer, Integer> entry : expected.entrySet()) {
+            Assert.assertEquals((int) entry.getValue(), bag.getCount(entry.getKey()));
+            total += entry.getValue();
+        }
+        Assert.assertEquals(expected.size(), bag.uniqueSize());
+        Assert.assertEquals(total, bag.totalSize());
+    }
+
+    @Test
+    public void testNegativeCount() {
+        ObjectIntBag<String> bag = new ObjectIntBag<>();
+        bag.add("a", 2);
+        try {
+            bag.remove("a", -1);
+            Assert.fail("expected IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+            // rejected like add(e, -1)
+        }
+        try {
+            bag.add("a", -1);
+            Assert.fail("expected IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+            // not an implicit removal
+        }
+        Assert.assertEquals(2, bag.getCount("a"));
+        Assert.assertEquals(2, bag.totalSize());
+    }
+}
@@ -0,0 +1,53 @@
+package com.java.api.apache.commons.collections.bidimap;
+
+import org.apache.commons.collections.BidiMap;
+import org.apache.commons.collections.bidimap.DualHashBidiMap;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class ConcurrentBidiMapTest {
+
+    @Test
+    public void testAgainstDualHashBidiMap() {
+        ConcurrentBidiMap<Integer, String> map = new ConcurrentBidiMap<>();
+        BidiMap expected = new DualHashBidiMap();
+        Random random = new Random(11);
+        for (int i = 0; i < 20000; i++) {
+            Integer key = random.nextInt(300);
+            String value = "v" + random.nextInt(300);
+            switch (random.nextInt(4)) {
+                case 0:
+                    Assert.assertEquals(expected.remove(key), map.removeKey(key));
+                    break;
+                case 1:
+                    Assert.assertEquals(expected.removeValue(value), map.removeValue(value));
+                    break;
+                default:
+                    Assert.assertEquals(expected.put(key, value), map.put(key, value));
+            }
+            Assert.assertEquals(expected.size(), map.size());
+            Assert.assertEquals(expected.get(key), map.get(key));
+            Assert.assertEquals(expected.getKey(value), map.getKey(value));
+        }
+    }
+
+    @Test
+    public void testPutAllLastWins() {
+        ConcurrentBidiMap<String, Integer> map = new ConcurrentBidiMap<>();
+        map.put("a", 1);
+        map.put("b", 2);
+        Map<String, Integer> batch = new LinkedHashMap<>();
+        batch.put("c", 1);
+        batch.put("b", 3);
+        map.putAll(batch);
+        Assert.assertEquals(2, map.size());
+        Assert.assertEquals("c", map.getKey(1));
+        Assert.assertEquals(Integer.valueOf(3), map.get("b"));
+        Assert.assertNull(map.get("a"));
+        Assert.assertNull(map.getKey(2));
+    }
+}
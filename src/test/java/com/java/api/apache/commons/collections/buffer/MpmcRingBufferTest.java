@@ -0,0 +1,105 @@
+package com.java.api.apache.commons.collections.buffer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class MpmcRingBufferTest {
+
+    @Test
+    public void testStatusCodes() {
+        RingBuffer<Integer> ring = new MpmcRingBuffer<>(3);
+        Assert.assertEquals(4, ring.capacity());
+        for (int i = 0; i < 4; i++) {
+            Assert.assertEquals(RingBuffer.OK, ring.offer(i));
+        }
+        Assert.assertEquals(RingBuffer.FULL, ring.offer(4));
+        Assert.assertEquals(Integer.valueOf(0), ring.poll());
+        Assert.assertEquals(3, ring.size());
+    }
+
+    @Test
+    public void testOverwrite() {
+        RingBuffer<Integer> ring = new MpmcRingBuffer<>(2, true);
+        Assert.assertEquals(RingBuffer.OK, ring.offer(1));
+        Assert.assertEquals(RingBuffer.OK, ring.offer(2));
+        Assert.assertEquals(RingBuffer.OVERWRITTEN, ring.offer(3));
+        Assert.assertEquals(Integer.valueOf(2), ring.poll());
+        Assert.assertEquals(Integer.valueOf(3), ring.poll());
+        Assert.assertNull(ring.poll());
+    }
+
+    @Test
+    public void testSpscOrder() throws InterruptedException {
+        final RingBuffer<Integer> ring = new SpscRingBuffer<>(64);
+        final int n = 1000000;
+        Thread producer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < n; i++) {
+                    while (ring.offer(i) != RingBuffer.OK) {
+                        Thread.yield();
+                    }
+                }
+            }
+        });
+        producer.start();
+        for (int i = 0; i < n; i++) {
+            Integer e;
+            while ((e = ring.poll()) == null) {
+                Thread.yield();
+            }
+            Assert.assertEquals(i, e.intValue());
+        }
+        producer.join();
+    }
+
+    @Test
+    public void testConcurrentProducersConsumers() throws InterruptedException {
+        final RingBuffer<Long> ring = new MpmcRingBuffer<>(128);
+        final int producers = 4, consumers = 4, perProducer = 200000;
+        final AtomicLong sum = new AtomicLong();
+        final AtomicLong consumed = new AtomicLong();
+        final CountDownLatch done = new CountDownLatch(producers + consumers);
+        ExecutorService pool = Executors.newFixedThreadPool(producers + consumers);
+        for (int p = 0; p < producers; p++) {
+            pool.execute(new Runnable() {
+                @Override
+                public void run() {
+                    for (long i = 1; i <= perProducer; i++) {
+                        while (ring.offer(i) != RingBuffer.OK) {
+                            Thread.yield();
+                        }
+                    }
+                    done.countDown();
+                }
+            });
+        }
+        for (int c = 0; c < consumers; c++) {
+            pool.execute(new Runnable() {
+                @Override
+                public void run() {
+                    while (consumed.get() < (long) producers * perProducer) {
+                        Long e = ring.poll();
+                        if (e == null) {
+                            Thread.yield();
+                        } else {
+                            sum.addAndGet(e);
+                            consumed.incrementAndGet();
+                        }
+                    }
+                    done.countDown();
+                }
+            });
+        }
+        Assert.assertTrue(done.await(60, TimeUnit.SECONDS));
+        pool.shutdown();
+        Assert.assertEquals((long) producers * perProducer, consumed.get());
+        Assert.assertEquals((long) producers * perProducer * (perProducer + 1) / 2, sum.get());
+    }
+}
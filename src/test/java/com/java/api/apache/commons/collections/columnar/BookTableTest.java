@@ -0,0 +1,108 @@
+package com.java.api.apache.commons.collections.columnar;
+
+import com.java.api.apache.commons.collections.Book;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+public class BookTableTest {
+    private static final String[] AUTHORS = {"zhang", "li", "wang", null};
+
+    @Test
+    public void testAgainstBooks() {
+        Random random = new Random(9);
+        Book[] books = new Book[1000];
+        for (int i = 0; i < books.length; i++) {
+            books[i] = new Book("book" + i, AUTHORS[random.nextInt(AUTHORS.length)], "pb", "2017",
+                    random.nextInt(10) == 0 ? null : (float) random.nextInt(100));
+        }
+        BookTable table = new BookTable(10);
+        for (Book bk : books) {
+            table.add(bk);
+        }
+        Assert.assertEquals(books.length, table.size());
+        Assert.assertEquals(books[123], table.get(123));
+
+        Bitmap cheap = table.priceBetween(10, 50, table.newBitmap());
+        Bitmap li = table.equalTo(BookTable.AUTHOR, "li", table.newBitmap());
+        Bitmap selected = cheap.copy().and(li);
+        int count = 0;
+        double sum = 0;
+        double total = 0;
+        int nonNull = 0;
+        double[] byAuthor = new double[table.dictionary(BookTable.AUTHOR).size()];
+        for (int i = 0; i < books.length; i++) {
+            Float price = books[i].getPrice();
+            boolean match = price != null && price >= 10 && price <= 50;
+            Assert.assertEquals(match, cheap.get(i));
+            if (price != null) {
+                total += price;
+                nonNull++;
+            }
+            if (match) {
+                byAuthor[table.dictionary(BookTable.AUTHOR).lookup(books[i].getAuthor())] += price;
+                if ("li".equals(books[i].getAuthor())) {
+                    count++;
+                    sum += price;
+                }
+            }
+        }
+        Assert.assertEquals(count, selected.cardinality());
+        Assert.assertEquals(sum, table.sumPrice(selected), 1e-6);
+        Assert.assertEquals(total, table.sumPrice(), 1e-6);
+        Assert.assertEquals(total, table.sumPrice(table.newBitmap().fill()), 1e-6);
+        Assert.assertEquals(nonNull, table.countPrice());
+        Assert.assertEquals(nonNull, table.priceNotNull(table.newBitmap()).cardinality());
+        Assert.assertArrayEquals(byAuthor, table.groupSumPrice(BookTable.AUTHOR, cheap), 1e-6);
+        Assert.assertTrue(table.equalTo(BookTable.AUTHOR, "nobody", table.newBitmap()).isEmpty());
+    }
+
+    @Test
+    public void testStaleBitmapRejected() {
+        BookTable table = new BookTable(4);
+        for (int i = 0; i < 3; i++) {
+            table.add(new Book("book" + i, "li", "pb", "2017", 10f));
+        }
+        Bitmap stale = table.newBitmap();
+        for (int i = 3; i < 73; i++) {
+            table.add(new Book("book" + i, "li", "pb", "2017", 10f));
+        }
+        Bitmap[] wrong = {stale, new Bitmap(200)};
+        for (Bitmap bitmap : wrong) {
+            int rejected = 0;
+            try {
+                table.priceAtLeast(0f, bitmap);
+            } catch (IllegalArgumentException e) {
+                rejected++;
+            }
+            try {
+                table.equalTo(BookTable.AUTHOR, "li", bitmap);
+            } catch (IllegalArgumentException e) {
+                rejected++;
+            }
+            try {
+                table.priceNotNull(bitmap);
+            } catch (IllegalArgumentException e) {
+                rejected++;
+            }
+            try {
+                table.sumPrice(bitmap);
+            } catch (IllegalArgumentException e) {
+                rejected++;
+            }
+            try {
+                table.groupCount(BookTable.AUTHOR, bitmap);
+            } catch (IllegalArgumentException e) {
+                rejected++;
+            }
+            try {
+                table.groupSumPrice(BookTable.AUTHOR, bitmap);
+            } catch (IllegalArgumentException e) {
+                rejected++;
+            }
+            Assert.assertEquals(6, rejected);
+        }
+        Assert.assertEquals(73, table.priceAtLeast(0f, table.newBitmap()).cardinality());
+    }
+}
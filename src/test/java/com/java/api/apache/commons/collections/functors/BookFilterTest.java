@@ -0,0 +1,68 @@
+package com.java.api.apache.commons.collections.functors;
+
+import com.java.api.apache.commons.collections.Book;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+public class BookFilterTest {
+    private static final String[] AUTHORS = {"zhang", "li", "wang", null};
+    private static final String[] PUBLISHERS = {"pb", "pa", null};
+
+    private static Book[] randomBooks(Random random, int n) {
+        Book[] books = new Book[n];
+        for (int i = 0; i < n; i++) {
+            if (random.nextInt(50) == 0) {
+                continue;
+            }
+            books[i] = new Book("book" + i, AUTHORS[random.nextInt(AUTHORS.length)],
+                    PUBLISHERS[random.nextInt(PUBLISHERS.length)], "2017",
+                    random.nextInt(20) == 0 ? null : (float) random.nextInt(100));
+        }
+        return books;
+    }
+
+    private static boolean expected(Book b, float lo, float hi, String author, String publisher) {
+        return b != null && b.getPrice() != null && b.getPrice() > lo && b.getPrice() <= hi
+                && author.equals(b.getAuthor()) && b.getPublisher() != null && !"pa".equals(b.getPublisher());
+    }
+
+    @Test
+    public void testAgainstPlainPredicate() {
+        Random random = new Random(5);
+        Book[] books = randomBooks(random, 10000);
+        int[] sel = new int[books.length];
+        for (int round = 0; round < 50; round++) {
+            float lo = random.nextInt(60);
+            float hi = lo + random.nextInt(60);
+            String author = AUTHORS[random.nextInt(3)];
+            // publishers are pb/pa/null: expected(...) spells publisher "pb" as not null and not "pa"
+            BookFilter filter = BookFilter.builder().priceAbove(lo).priceAtMost(hi).priceAbove(lo - 5)
+                    .author(author).publisher("pb").notNull(BookFilter.PUBLISHER)
+                    .build(round % 2 == 0 ? books : null);
+            int n = filter.select(books, 0, books.length, sel);
+            int j = 0;
+            for (int i = 0; i < books.length; i++) {
+                boolean match = expected(books[i], lo, hi, author, "pb");
+                Assert.assertEquals(match, filter.test(books[i]));
+                Assert.assertEquals(match, filter.evaluate(books[i]));
+                if (match) {
+                    Assert.assertEquals(i, sel[j++]);
+                }
+            }
+            Assert.assertEquals(j, n);
+        }
+    }
+
+    @Test
+    public void testContradictions() {
+        Book bk = Book.getBooks()[1];
+        Assert.assertTrue(BookFilter.builder().author("li").build().test(bk));
+        Assert.assertFalse(BookFilter.builder().author("li").author("wang").build().test(bk));
+        Assert.assertFalse(BookFilter.builder().priceAbove(10f).priceBelow(10f).build().test(bk));
+        Assert.assertTrue(BookFilter.builder().priceBetween(10f, 10f).build().test(bk));
+        Assert.assertFalse(BookFilter.builder().author("li").isNull(BookFilter.AUTHOR).build().test(bk));
+        Assert.assertFalse(BookFilter.builder().build().evaluate("not a book"));
+    }
+}
@@ -0,0 +1,65 @@
+package com.java.api.apache.commons.collections.iterators;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+public class SpliteratorTest {
+    private static final Integer[] DATA = new Integer[1000];
+
+    static {
+        for (int i = 0; i < DATA.length; i++) {
+            DATA[i] = i;
+        }
+    }
+
+    @Test
+    public void testCyclicMatchesLoopingIterator() {
+        long count = 12345;
+        List<Integer> expected = new ArrayList<>();
+        for (long i = 0; i < count; i++) {
+            expected.add(DATA[(int) (i % DATA.length)]);
+        }
+        Spliterator<Integer> cyclic = new CyclicSpliterator<>(DATA, count);
+        Assert.assertEquals(count, cyclic.getExactSizeIfKnown());
+        Assert.assertTrue(cyclic.hasCharacteristics(Spliterator.SUBSIZED));
+        Assert.assertEquals(expected, StreamSupport.stream(cyclic, true).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testCyclicBalancedSplit() {
+        Spliterator<Integer> cyclic = new CyclicSpliterator<>(DATA, 1001);
+        Spliterator<Integer> prefix = cyclic.trySplit();
+        Assert.assertEquals(500, prefix.estimateSize());
+        Assert.assertEquals(501, cyclic.estimateSize());
+        Integer[] first = new Integer[1];
+        Assert.assertTrue(cyclic.tryAdvance(i -> first[0] = i));
+        Assert.assertEquals(Integer.valueOf(500), first[0]);
+    }
+
+    @Test
+    public void testFilter() {
+        Spliterator<Integer> filter = new FilterSpliterator<>(Arrays.spliterator(DATA), i -> i % 3 == 0);
+        Assert.assertFalse(filter.hasCharacteristics(Spliterator.SIZED));
+        Assert.assertTrue(filter.hasCharacteristics(Spliterator.ORDERED));
+        List<Integer> expected = new ArrayList<>();
+        for (Integer i : DATA) {
+            if (i % 3 == 0) {
+                expected.add(i);
+            }
+        }
+        Assert.assertEquals(expected, StreamSupport.stream(filter, true).collect(Collectors.toList()));
+        Spliterator<Integer> sequential = new FilterSpliterator<>(Arrays.spliterator(DATA), i -> i % 3 == 0);
+        List<Integer> visited = new ArrayList<>();
+        while (sequential.tryAdvance(visited::add)) {
+            // one match per call
+        }
+        Assert.assertEquals(expected, visited);
+    }
+}
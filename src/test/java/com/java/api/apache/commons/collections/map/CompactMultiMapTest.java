@@ -0,0 +1,60 @@
+package com.java.api.apache.commons.collections.map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+public class CompactMultiMapTest {
+
+    @Test
+    public void testAgainstMapOfLists() {
+        CompactMultiMap<Integer, Integer> map = new CompactMultiMap<>();
+        Map<Integer, List<Integer>> expected = new HashMap<>();
+        Random random = new Random(3);
+        for (int i = 0; i < 100000; i++) {
+            Integer key = random.nextInt(200);
+            Integer value = random.nextInt(4);
+            if (random.nextInt(3) > 0) {
+                map.put(key, value);
+                expected.computeIfAbsent(key, k -> new ArrayList<>()).add(value);
+            } else {
+                List<Integer> values = expected.get(key);
+                boolean removed = values != null && values.remove(value);
+                if (values != null && values.isEmpty()) {
+                    expected.remove(key);
+                }
+                Assert.assertEquals(removed, map.remove(key, value));
+            }
+            Assert.assertEquals(expected.getOrDefault(key, new ArrayList<>()), map.get(key));
+        }
+        Assert.assertEquals(expected.size(), map.size());
+        FrozenMultiMap<Integer, Integer> frozen = map.freeze();
+        int total = 0;
+        for (Map.Entry<Integer, List<Integer>> entry : expected.entrySet()) {
+            Assert.assertEquals(entry.getValue(), frozen.get(entry.getKey()));
+            total += entry.getValue().size();
+        }
+        Assert.assertEquals(total, map.totalSize());
+        Assert.assertEquals(total, frozen.totalSize());
+        Assert.assertTrue(frozen.get(-1).isEmpty());
+    }
+
+    @Test
+    public void testContainerLikeValue() {
+        CompactMultiMap<String, Object> map = new CompactMultiMap<>();
+        Object[] array = {"x", "y"};
+        map.put("k", array);
+        Assert.assertEquals(1, map.getCount("k"));
+        Assert.assertSame(array, map.get("k").get(0));
+        map.put("k", "z");
+        Assert.assertEquals(Arrays.asList(array, "z"), map.get("k"));
+        map.remove("k", "z");
+        Assert.assertSame(array, map.get("k").get(0));
+    }
+}
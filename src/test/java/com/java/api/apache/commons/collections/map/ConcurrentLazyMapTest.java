@@ -0,0 +1,137 @@
+package com.java.api.apache.commons.collections.map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+public class ConcurrentLazyMapTest {
+
+    @Test
+    public void testSingleFlight() throws InterruptedException {
+        final AtomicInteger loads = new AtomicInteger();
+        final CountDownLatch start = new CountDownLatch(1);
+        final ConcurrentLazyMap<Integer, Integer> map = new ConcurrentLazyMap<>(new Function<Integer, Integer>() {
+            @Override
+            public Integer apply(Integer key) {
+                loads.incrementAndGet();
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return key * 2;
+            }
+        }, 100);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        final AtomicInteger wrong = new AtomicInteger();
+        for (int i = 0; i < 32; i++) {
+            pool.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    if (map.get(21) != 42) {
+                        wrong.incrementAndGet();
+                    }
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        Assert.assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+        Assert.assertEquals(1, loads.get());
+        Assert.assertEquals(0, wrong.get());
+    }
+
+    @Test
+    public void testBoundedAndFailureNotCached() {
+        final AtomicInteger calls = new AtomicInteger();
+        ConcurrentLazyMap<Integer, Integer> map = new ConcurrentLazyMap<>(new Function<Integer, Integer>() {
+            @Override
+            public Integer apply(Integer key) {
+                if (key < 0 && calls.incrementAndGet() == 1) {
+                    throw new IllegalStateException("first load fails");
+                }
+                return key;
+            }
+        }, 10);
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertEquals(Integer.valueOf(i), map.get(i));
+            Assert.assertTrue(map.size() <= 10);
+        }
+        try {
+            map.get(-1);
+            Assert.fail("expected the loader exception");
+        } catch (IllegalStateException expected) {
+            // the failure is not cached
+        }
+        Assert.assertEquals(Integer.valueOf(-1), map.get(-1));
+    }
+
+    @Test
+    public void testBulkPrefetch() {
+        final AtomicInteger bulkCalls = new AtomicInteger();
+        ConcurrentLazyMap<String, Integer> map = new ConcurrentLazyMap<>(new Function<String, Integer>() {
+            @Override
+            public Integer apply(String key) {
+                throw new AssertionError("single loads are not expected");
+            }
+        }, new Function<List<String>, Map<String, Integer>>() {
+            @Override
+            public Map<String, Integer> apply(List<String> keys) {
+                bulkCalls.incrementAndGet();
+                Map<String, Integer> values = new HashMap<>();
+                for (String key : keys) {
+                    values.put(key, key.length());
+                }
+                return values;
+            }
+        }, 100, null);
+        map.prefetch(Arrays.asList("a", "bb", "ccc")).join();
+        map.prefetch(Arrays.asList("a", "bb")).join();
+        Assert.assertEquals(1, bulkCalls.get());
+        Assert.assertEquals(Integer.valueOf(3), map.getIfPresent("ccc"));
+    }
+
+    @Test
+    public void testStaleClockEntriesDrained() {
+        ConcurrentLazyMap<Integer, Integer> map = new ConcurrentLazyMap<>(new Function<Integer, Integer>() {
+            @Override
+            public Integer apply(Integer key) {
+                if (key < 0) {
+                    throw new IllegalStateException("always fails");
+                }
+                return key;
+            }
+        }, 10);
+        for (int i = 0; i < 5; i++) {
+            map.get(i);
+        }
+        for (int i = 0; i < 10000; i++) {
+            try {
+                map.get(-1);
+                Assert.fail("expected the loader exception");
+            } catch (IllegalStateException expected) {
+                // retried on every get
+            }
+            map.invalidate(i % 5);
+            map.get(i % 5);
+            Assert.assertTrue(map.clockLength() <= 2 * 10 + 1);
+        }
+        Assert.assertEquals(5, map.size());
+        Assert.assertEquals(Integer.valueOf(3), map.getIfPresent(3));
+    }
+}
@@ -0,0 +1,110 @@
+package com.java.api.encrypt;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+public class HmacSignerTest {
+    private static final String KEY = "7Te4G1c674be4fe48fE87d8f87N5c90a";
+
+    private static byte[] reference(String algorithm, byte[] content) throws Exception {
+        Mac mac = Mac.getInstance(algorithm);
+        mac.init(new SecretKeySpec(KEY.getBytes(StandardCharsets.UTF_8), algorithm));
+        return mac.doFinal(content);
+    }
+
+    @Test
+    public void testAlgorithms() throws Exception {
+        byte[] content = "scope:deadline".getBytes(StandardCharsets.UTF_8);
+        for (String algorithm : new String[]{HmacSigner.HMAC_SHA1, HmacSigner.HMAC_SHA256, HmacSigner.HMAC_SHA512}) {
+            HmacSigner signer = HmacSigner.forKey(algorithm, KEY);
+            Assert.assertSame(signer, HmacSigner.forKey(algorithm, KEY));
+            byte[] expected = reference(algorithm, content);
+            Assert.assertArrayEquals(expected, signer.sign(content));
+            Assert.assertEquals(expected.length, signer.getMacLength());
+            // heap and direct buffers, at an offset
+            for (ByteBuffer out : new ByteBuffer[]{ByteBuffer.allocate(100), ByteBuffer.allocateDirect(100)}) {
+                out.position(3);
+                ByteBuffer in = ByteBuffer.allocateDirect(content.length);
+                in.put(content).flip();
+                Assert.assertEquals(expected.length, signer.sign(in, out));
+                Assert.assertEquals(3 + expected.length, out.position());
+                Assert.assertFalse(in.hasRemaining());
+                byte[] actual = new byte[expected.length];
+                out.position(3);
+                out.get(actual);
+                Assert.assertArrayEquals(expected, actual);
+            }
+        }
+    }
+
+    @Test
+    public void testBatches() {
+        HmacSigner signer = HmacSigner.forKey(HmacSigner.HMAC_SHA256, KEY);
+        List<String> contents = new ArrayList<>();
+        List<byte[]> bytes = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            contents.add("content" + i);
+            bytes.add(("content" + i).getBytes(StandardCharsets.UTF_8));
+        }
+        List<String> tokens = signer.signAllParallel(contents);
+        List<byte[]> signatures = signer.signAll(bytes);
+        for (int i = 0; i < contents.size(); i++) {
+            Assert.assertEquals(signer.signToken(contents.get(i)), tokens.get(i));
+            Assert.assertArrayEquals(signer.sign(bytes.get(i)), signatures.get(i));
+        }
+    }
+
+    @Test
+    public void testDirectOutputWithoutAllocation() throws Exception {
+        HmacSigner signer = HmacSigner.forKey(HmacSigner.HMAC_SHA256, KEY);
+        byte[] content = "scope:deadline".getBytes(StandardCharsets.UTF_8);
+        byte[] expected = reference(HmacSigner.HMAC_SHA256, content);
+        // heap input: the jdk's Mac copies a direct input through a temporary array, which is not measured here
+        ByteBuffer in = ByteBuffer.allocate(content.length);
+        ByteBuffer out = ByteBuffer.allocateDirect(signer.getMacLength());
+        in.put(content);
+        byte[] actual = new byte[expected.length];
+        for (int i = 0; i < 3; i++) {
+            in.flip();
+            out.clear();
+            signer.sign(in, out);
+            out.flip();
+            out.get(actual);
+            Assert.assertArrayEquals(expected, actual);
+            in.limit(in.capacity()).position(in.capacity());
+        }
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+            return;
+        }
+        com.sun.management.ThreadMXBean allocation = (com.sun.management.ThreadMXBean) threads;
+        // the jdk's Mac allocates internally on every doFinal; a direct output must not add to that
+        ByteBuffer heapOut = ByteBuffer.allocate(signer.getMacLength());
+        allocated(allocation, signer, in, heapOut, 20000);
+        allocated(allocation, signer, in, out, 20000);
+        long heap = allocated(allocation, signer, in, heapOut, 10000);
+        long direct = allocated(allocation, signer, in, out, 10000);
+        // a byte[32] per call would be 480KB more
+        Assert.assertTrue(String.format("direct %s vs heap %s bytes", direct, heap), direct < heap + 100000);
+    }
+
+    private static long allocated(com.sun.management.ThreadMXBean allocation, HmacSigner signer, ByteBuffer in,
+                                  ByteBuffer out, int n) {
+        long tid = Thread.currentThread().getId();
+        long before = allocation.getThreadAllocatedBytes(tid);
+        for (int i = 0; i < n; i++) {
+            in.position(0);
+            out.clear();
+            signer.sign(in, out);
+        }
+        return allocation.getThreadAllocatedBytes(tid) - before;
+    }
+}
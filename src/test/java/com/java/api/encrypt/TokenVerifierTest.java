@@ -0,0 +1,97 @@
+package com.java.api.encrypt;
+
+import org.apache.commons.codec.binary.Base64;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+public class TokenVerifierTest {
+    private static final String KEY = "7Te4G1c674be4fe48fE87d8f87N5c90a";
+    private static final String CONTENT = "eyJzY29wZSI6IjExMDgyMjFfNzBmZGEyOTAxMDI0YTYzYmU1MmQ2ZjgzNjU0Y2U5MmJmNmRhYTU3OSIsImRlYWRsaW5lIjoxNTA2NjIxNDIzfQ";
+    private static final long DEADLINE = 1506621423L;
+
+    private final HmacSigner signer = HmacSigner.forKey(HmacSigner.HMAC_SHA1, KEY);
+
+    private static String payload(String scope, long deadline) {
+        String json = "{\"scope\":\"" + scope + "\",\"deadline\":" + deadline + "}";
+        return Base64.encodeBase64URLSafeString(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testDemoToken() {
+        TokenVerifier verifier = new TokenVerifier(signer, 100);
+        String token = signer.signToken(CONTENT) + ":" + CONTENT;
+        TokenVerifier.Verification result = verifier.verify(token, DEADLINE - 1);
+        Assert.assertEquals(TokenVerifier.Status.VALID, result.getStatus());
+        Assert.assertEquals("1108221_70fda2901024a63be52d6f83654ce92bf6daa579", result.getPayload().getScope());
+        Assert.assertSame(result, verifier.verify(token, DEADLINE - 1));
+        Assert.assertEquals(TokenVerifier.Status.EXPIRED, verifier.verify(token, DEADLINE).getStatus());
+        Assert.assertEquals(0, verifier.cacheSize());
+    }
+
+    @Test
+    public void testRejected() {
+        TokenVerifier verifier = new TokenVerifier(signer, 100);
+        String sign = signer.signToken(CONTENT);
+        String forged = (sign.charAt(0) == 'A' ? 'B' : 'A') + sign.substring(1);
+        Assert.assertEquals(TokenVerifier.Status.BAD_SIGNATURE, verifier.verify(forged + ":" + CONTENT, 0).getStatus());
+        Assert.assertEquals(TokenVerifier.Status.BAD_SIGNATURE,
+                verifier.verify(sign + ":" + payload("other", DEADLINE), 0).getStatus());
+        Assert.assertEquals(TokenVerifier.Status.MALFORMED, verifier.verify(CONTENT, 0).getStatus());
+        Assert.assertEquals(TokenVerifier.Status.MALFORMED, verifier.verify(sign + ":", 0).getStatus());
+        Assert.assertEquals(0, verifier.cacheSize());
+    }
+
+    @Test
+    public void testSignedNonObjectPayload() {
+        TokenVerifier verifier = new TokenVerifier(signer, 100);
+        for (String json : Arrays.asList("null", "1", "[]", "")) {
+            String payload = Base64.encodeBase64URLSafeString(json.getBytes(StandardCharsets.UTF_8));
+            String token = signer.signToken(payload) + ":" + payload;
+            Assert.assertEquals(json, TokenVerifier.Status.MALFORMED, verifier.verify(token, 0).getStatus());
+            Assert.assertEquals(json, TokenVerifier.Status.MALFORMED,
+                    verifier.verifyAll(Arrays.asList(token), 0).get(0).getStatus());
+        }
+        Assert.assertEquals(0, verifier.cacheSize());
+    }
+
+    @Test
+    public void testBoundedCache() {
+        TokenVerifier verifier = new TokenVerifier(signer, 50);
+        for (int i = 0; i < 500; i++) {
+            String payload = payload("scope" + i, 1000 + i);
+            Assert.assertTrue(verifier.verify(signer.signToken(payload) + ":" + payload, 900).isValid());
+            Assert.assertTrue(verifier.cacheSize() <= 50);
+        }
+    }
+
+    @Test
+    public void testVerifyAll() {
+        TokenVerifier verifier = new TokenVerifier(signer, 100);
+        String valid = signer.signToken(CONTENT) + ":" + CONTENT;
+        String expired = payload("old", 10);
+        List<String> tokens = Arrays.asList(valid, CONTENT, signer.signToken(expired) + ":" + expired,
+                "AAAA:" + CONTENT, valid);
+        List<TokenVerifier.Verification> results = verifier.verifyAll(tokens, DEADLINE - 1);
+        Assert.assertEquals(tokens.size(), results.size());
+        Assert.assertEquals(TokenVerifier.Status.VALID, results.get(0).getStatus());
+        Assert.assertEquals(TokenVerifier.Status.MALFORMED, results.get(1).getStatus());
+        Assert.assertEquals(TokenVerifier.Status.EXPIRED, results.get(2).getStatus());
+        Assert.assertEquals(TokenVerifier.Status.BAD_SIGNATURE, results.get(3).getStatus());
+        Assert.assertEquals(TokenVerifier.Status.VALID, results.get(4).getStatus());
+        // same results as one by one, the valid one is now a cache hit
+        for (int i = 0; i < tokens.size(); i++) {
+            Assert.assertEquals(results.get(i).getStatus(), verifier.verify(tokens.get(i), DEADLINE - 1).getStatus());
+        }
+        Assert.assertSame(results.get(4), verifier.verifyAll(Arrays.asList(valid), DEADLINE - 1).get(0));
+        Assert.assertTrue(verifier.verifyAll(Arrays.<String>asList(), 0).isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMaxEntries() {
+        new TokenVerifier(signer, 0);
+    }
+}
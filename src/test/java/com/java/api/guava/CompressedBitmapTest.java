@@ -0,0 +1,87 @@
+package com.java.api.guava;
+
+import com.java.api.guava.ranges.CompressedBitmap;
+import com.java.api.guava.ranges.LongRangeSet;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+public class CompressedBitmapTest {
+    private static final int UNIVERSE = 5 * 65536;
+
+    /**
+     * dense runs, sparse values and random halves, so all three container forms show up
+     */
+    private static BitSet randomBits(Random random) {
+        BitSet bits = new BitSet(UNIVERSE);
+        for (int i = 0; i < 20; i++) {
+            int lo = random.nextInt(UNIVERSE);
+            bits.set(lo, Math.min(UNIVERSE, lo + random.nextInt(20000)));
+        }
+        for (int i = 0; i < 3000; i++) {
+            bits.flip(random.nextInt(UNIVERSE));
+        }
+        int base = random.nextInt(4) * 65536;
+        for (int i = 0; i < 65536; i++) {
+            if (random.nextBoolean()) {
+                bits.set(base + i);
+            }
+        }
+        return bits;
+    }
+
+    private static CompressedBitmap toBitmap(BitSet bits) {
+        return CompressedBitmap.of(bits.stream().toArray());
+    }
+
+    private static void assertSame(BitSet expected, CompressedBitmap actual) {
+        Assert.assertEquals(expected.cardinality(), actual.cardinality());
+        for (int i = 0; i < UNIVERSE + 10; i++) {
+            if (expected.get(i) != actual.contains(i)) {
+                Assert.fail("mismatch at " + i);
+            }
+        }
+        LongRangeSet.Builder builder = LongRangeSet.builder();
+        for (int i = expected.nextSetBit(0); i >= 0; i = expected.nextSetBit(expected.nextClearBit(i))) {
+            builder.add(i, expected.nextClearBit(i) - 1);
+        }
+        Assert.assertEquals(builder.build(), actual.toRangeSet());
+        Assert.assertEquals(actual, CompressedBitmap.of(actual.toRangeSet()));
+    }
+
+    @Test
+    public void testAgainstBitSet() {
+        Random random = new Random(21);
+        for (int round = 0; round < 10; round++) {
+            BitSet a = randomBits(random);
+            BitSet b = randomBits(random);
+            CompressedBitmap x = toBitmap(a);
+            CompressedBitmap y = toBitmap(b);
+            assertSame(a, x);
+            BitSet and = (BitSet) a.clone();
+            and.and(b);
+            assertSame(and, x.and(y));
+            BitSet or = (BitSet) a.clone();
+            or.or(b);
+            assertSame(or, x.or(y));
+            BitSet andNot = (BitSet) a.clone();
+            andNot.andNot(b);
+            assertSame(andNot, x.andNot(y));
+            // the same sets, built from their runs
+            assertSame(and, CompressedBitmap.of(x.toRangeSet()).and(CompressedBitmap.of(y.toRangeSet())));
+            assertSame(andNot, CompressedBitmap.of(x.toRangeSet()).andNot(y));
+        }
+    }
+
+    @Test
+    public void testLargeRangeIsSmall() {
+        CompressedBitmap ids = CompressedBitmap.of(LongRangeSet.of(1, 100000000));
+        Assert.assertEquals(100000000, ids.cardinality());
+        Assert.assertTrue(ids.sizeInBytes() < 16 * 1024);
+        Assert.assertEquals(LongRangeSet.of(1, 100000000), ids.toRangeSet());
+        Assert.assertFalse(ids.contains(0));
+        Assert.assertTrue(ids.contains(65536));
+    }
+}
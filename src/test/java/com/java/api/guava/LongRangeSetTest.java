@@ -0,0 +1,87 @@
+package com.java.api.guava;
+
+import com.google.common.collect.Range;
+import com.google.common.collect.RangeSet;
+import com.google.common.collect.TreeRangeSet;
+import com.java.api.guava.ranges.LongRangeSet;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+
+public class LongRangeSetTest {
+
+    private static List<Range<Long>> randomRanges(Random random, int n) {
+        List<Range<Long>> ranges = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            long lo = random.nextInt(2000);
+            ranges.add(Range.closed(lo, lo + random.nextInt(30)));
+        }
+        return ranges;
+    }
+
+    private static RangeSet<Long> canonical(RangeSet<Long> set) {
+        // closed ranges over integers: [1..3] and [4..6] are one range for LongRangeSet
+        LongRangeSet.Builder builder = LongRangeSet.builder();
+        for (Range<Long> range : set.asRanges()) {
+            builder.add(range);
+        }
+        return builder.build().toRangeSet();
+    }
+
+    @Test
+    public void testAgainstTreeRangeSet() {
+        Random random = new Random(17);
+        for (int round = 0; round < 50; round++) {
+            List<Range<Long>> ranges1 = randomRanges(random, 100);
+            List<Range<Long>> ranges2 = randomRanges(random, 100);
+            TreeRangeSet<Long> expected1 = TreeRangeSet.create(ranges1);
+            TreeRangeSet<Long> expected2 = TreeRangeSet.create(ranges2);
+            LongRangeSet set1 = LongRangeSet.of(ranges1);
+            LongRangeSet set2 = LongRangeSet.of(ranges2);
+            Assert.assertEquals(canonical(expected1), set1.toRangeSet());
+
+            TreeRangeSet<Long> union = TreeRangeSet.create(expected1);
+            union.addAll(expected2);
+            Assert.assertEquals(canonical(union), set1.union(set2).toRangeSet());
+
+            TreeRangeSet<Long> difference = TreeRangeSet.create(expected1);
+            difference.removeAll(expected2);
+            Assert.assertEquals(canonical(difference), set1.difference(set2).toRangeSet());
+
+            TreeRangeSet<Long> intersection = TreeRangeSet.create(expected1);
+            intersection.removeAll(expected2.complement());
+            Assert.assertEquals(canonical(intersection), set1.intersection(set2).toRangeSet());
+
+            long count = 0;
+            for (long v = -10; v < 2100; v++) {
+                Assert.assertEquals(expected1.contains(v), set1.contains(v));
+                if (expected1.contains(v)) {
+                    count++;
+                }
+            }
+            Assert.assertEquals(count, set1.cardinality());
+            PrimitiveIterator.OfLong itr = set1.iterator();
+            long visited = 0;
+            while (itr.hasNext()) {
+                Assert.assertTrue(expected1.contains(itr.nextLong()));
+                visited++;
+            }
+            Assert.assertEquals(count, visited);
+        }
+    }
+
+    @Test
+    public void testExtremes() {
+        LongRangeSet all = LongRangeSet.of(Long.MIN_VALUE, Long.MAX_VALUE);
+        LongRangeSet top = LongRangeSet.of(Long.MAX_VALUE - 1, Long.MAX_VALUE);
+        Assert.assertEquals(LongRangeSet.of(Long.MIN_VALUE, Long.MAX_VALUE - 2), all.difference(top));
+        Assert.assertEquals(top, top.complement().complement());
+        Assert.assertTrue(LongRangeSet.of(Range.<Long>all()).contains(Long.MIN_VALUE));
+        Assert.assertTrue(LongRangeSet.of(1, 5).intersection(LongRangeSet.of(7, 9)).isEmpty());
+        Assert.assertEquals(LongRangeSet.of(1, 9), LongRangeSet.of(1, 5).union(LongRangeSet.of(6, 9)));
+    }
+}
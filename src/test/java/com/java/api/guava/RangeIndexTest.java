@@ -0,0 +1,61 @@
+package com.java.api.guava;
+
+import com.google.common.collect.Range;
+import com.java.api.guava.ranges.LongRangeIndex;
+import com.java.api.guava.ranges.RangeDemo;
+import com.java.api.guava.ranges.RangeIndex;
+import com.java.api.guava.ranges.RangeType;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class RangeIndexTest {
+
+    @Test
+    public void testAgainstLinearScan() {
+        RangeDemo demo = new RangeDemo();
+        Random random = new Random(13);
+        RangeType[] types = RangeType.values();
+        List<Range<Long>> ranges = new ArrayList<>();
+        RangeIndex.Builder<Long, Integer> builder = RangeIndex.builder();
+        LongRangeIndex.Builder<Integer> longBuilder = LongRangeIndex.builder();
+        for (int i = 0; i < 300; i++) {
+            long lower = random.nextInt(1000);
+            long upper = lower + random.nextInt(50);
+            RangeType type = types[random.nextInt(types.length)];
+            if (lower == upper && type == RangeType.OPEN) {
+                type = RangeType.CLOSED;
+            }
+            Range<Long> range = demo.createRange(lower, upper, type);
+            ranges.add(range);
+            builder.put(range, i);
+            longBuilder.put(range, i);
+        }
+        RangeIndex<Long, Integer> index = builder.build();
+        LongRangeIndex<Integer> longIndex = longBuilder.build();
+        final List<List<Integer>> expected = new ArrayList<>();
+        long[] points = new long[1100];
+        List<Long> boxed = new ArrayList<>();
+        for (int p = 0; p < points.length; p++) {
+            points[p] = p - 50;
+            boxed.add(points[p]);
+            List<Integer> containing = new ArrayList<>();
+            for (int i = 0; i < ranges.size(); i++) {
+                if (ranges.get(i).contains(points[p])) {
+                    containing.add(i);
+                }
+            }
+            expected.add(containing);
+            Assert.assertEquals(containing, index.get(points[p]));
+            Assert.assertEquals(containing, longIndex.get(points[p]));
+        }
+        final int[] at = {0};
+        index.forEachSorted(boxed, (point, values) -> Assert.assertEquals(expected.get(at[0]++), values));
+        at[0] = 0;
+        longIndex.forEachSorted(points, (values, point) -> Assert.assertEquals(expected.get(at[0]++), values));
+        Assert.assertEquals(points.length, at[0]);
+    }
+}
@@ -7,6 +7,8 @@ import com.java.api.guava.ranges.RangeType;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Arrays;
+
 /**
  * Created by kevintian on 2017/10/13.
  */
@@ -50,4 +52,25 @@ public class RangesTest {
         Range closedRange = demo.createRange(4, 10, RangeType.CLOSED);
         demo.rangeOperations(openedRange, closedRange);
     }
+
+    @Test
+    public void testRangeIndex() {
+        demo.rangeIndex(Arrays.<Range<Integer>>asList(demo.createRange(1, 5, RangeType.OPEN),
+                demo.createRange(4, 10, RangeType.CLOSED), demo.createRange(10, 0, RangeType.AT_LEAST)),
+                Arrays.asList(1, 4, 5, 10, 11));
+    }
+
+    @Test
+    public void testRangeSetOperations() {
+        demo.rangeSetOperations(Arrays.<Range<Long>>asList(demo.createRange(1L, 5L, RangeType.OPEN),
+                demo.createRange(20L, 30L, RangeType.CLOSED)),
+                Arrays.<Range<Long>>asList(demo.createRange(4L, 25L, RangeType.CLOSED_OPEN)));
+    }
+
+    @Test
+    public void testRange2Bitmap() {
+        demo.range2Bitmap(Arrays.<Range<Integer>>asList(demo.createRange(1, 100000000, RangeType.CLOSED)),
+                Arrays.<Range<Integer>>asList(demo.createRange(50, 70000, RangeType.OPEN),
+                        demo.createRange(99999990, 0, RangeType.AT_LEAST)));
+    }
 }
@@ -0,0 +1,90 @@
+package com.java.api.jackson;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * encode/decode speed of Container payloads in every Codec, sizes are printed by main() before the run
+ * <p>
+ * RUN: main() from the ide(test classpath)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodecBenchmark {
+    @Param({"JSON", "SMILE", "CBOR"})
+    public String codecName;
+
+    @Param({"10", "1000"})
+    public int elements;
+
+    Codec codec;
+    JacksonDemo.Container container;
+    byte[] encoded;
+
+    public static void main(String[] args) throws Exception {
+        for (int size : new int[]{10, 1000}) {
+            JacksonDemo.Container container = container(size);
+            for (Codec codec : Codec.values()) {
+                System.out.println(String.format("%s elements, %s: %s bytes", size, codec,
+                        codec.encode(container).length));
+            }
+        }
+        new Runner(new OptionsBuilder().include(CodecBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    @Setup
+    public void setup() throws Exception {
+        codec = Codec.valueOf(codecName);
+        container = container(elements);
+        encoded = codec.encode(container);
+    }
+
+    @Benchmark
+    public byte[] encode() throws Exception {
+        return codec.encode(container);
+    }
+
+    @Benchmark
+    public Object decode() throws Exception {
+        return codec.decode(encoded, JacksonDemo.Container.class);
+    }
+
+    static JacksonDemo.Container container(int size) {
+        JacksonDemo.Container container = new JacksonDemo.Container();
+        List<JacksonDemo.Element> elementList = new ArrayList<>();
+        Map<String, JacksonDemo.Element> elementMap = new HashMap<>();
+        for (long idx = 1; idx <= size; idx++) {
+            JacksonDemo.Element element = new JacksonDemo.Element(idx, "element_" + idx, new Date());
+            elementList.add(element);
+            elementMap.put(String.valueOf(idx), element);
+        }
+        container.setId(0);
+        container.setName("container");
+        container.setElementList(elementList);
+        container.setElementMap(elementMap);
+        container.setCreateTime(new Date());
+        return container;
+    }
+}
@@ -0,0 +1,185 @@
+package com.java.api.jackson;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.OptBoolean;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class DateFormatModuleTest {
+    private static final String PATTERN = "yyyy-MM-dd HH:mm:ss";
+
+    public static class Event {
+        @JsonFormat(pattern = PATTERN, timezone = "GMT+8")
+        public Date shanghai;
+        @JsonFormat(pattern = PATTERN, timezone = "America/New_York")
+        public Date newYork;
+        @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss.SSS")
+        public Date utcMillis;
+        @JsonFormat(pattern = "yyyy-MM-dd")
+        public Date day;
+        @JsonFormat(pattern = PATTERN, timezone = "GMT+8", lenient = OptBoolean.FALSE)
+        public Date strict;
+    }
+
+    private static SimpleDateFormat legacy(String pattern, String zone) {
+        SimpleDateFormat format = new SimpleDateFormat(pattern, Locale.US);
+        format.setTimeZone(TimeZone.getTimeZone(zone));
+        return format;
+    }
+
+    private static CachedDateSerializer serializer(String pattern, String zone) {
+        return new CachedDateSerializer(DateTimeFormatter.ofPattern(pattern, Locale.US).withZone(ZoneId.of(zone)),
+                !CachedDateSerializer.hasSubSecondField(pattern));
+    }
+
+    @Test
+    public void testSecondBoundaries() {
+        CachedDateSerializer serializer = serializer(PATTERN, "UTC");
+        SimpleDateFormat expected = legacy(PATTERN, "UTC");
+        long base = 1506621423000L;
+        // the cache holds the last second: alternate between neighbours and cross the boundaries both ways
+        long[] millis = {base, base + 999, base + 1000, base + 999, base - 1, base, -1, 0, -1000, -1001, 999};
+        for (long m : millis) {
+            Assert.assertEquals(String.valueOf(m), expected.format(new Date(m)), serializer.format(m));
+        }
+        Assert.assertTrue(CachedDateSerializer.hasSubSecondField("HH:mm:ss.SSS"));
+        Assert.assertFalse(CachedDateSerializer.hasSubSecondField("HH:mm:ss 'SSS'"));
+        CachedDateSerializer fractions = serializer("HH:mm:ss.SSS", "UTC");
+        Assert.assertEquals("00:00:00.999", fractions.format(999));
+        Assert.assertEquals("00:00:01.000", fractions.format(1000));
+    }
+
+    @Test
+    public void testRoundTripAcrossZones() throws IOException {
+        Random random = new Random(42);
+        for (int i = 0; i < 1000; i++) {
+            // 2000..2030, crossing the daylight saving switches of New York
+            long millis = 946684800000L + (long) (random.nextDouble() * 946684800000L);
+            long seconds = millis / 1000 * 1000;
+            Event event = new Event();
+            event.shanghai = new Date(millis);
+            event.newYork = new Date(millis);
+            event.utcMillis = new Date(millis);
+            event.day = new Date(millis);
+            String json = JsonMappers.writer(Event.class).writeValueAsString(event);
+            Assert.assertTrue(json, json.contains(legacy(PATTERN, "America/New_York").format(event.newYork)));
+
+            Event back = JsonMappers.reader(Event.class).readValue(json);
+            Assert.assertEquals(seconds, back.shanghai.getTime());
+            Assert.assertEquals(seconds, back.newYork.getTime());
+            Assert.assertEquals(millis, back.utcMillis.getTime());
+            Assert.assertEquals(millis - Math.floorMod(millis, 86400000L), back.day.getTime());
+        }
+    }
+
+    @Test
+    public void testConcurrentCache() throws InterruptedException {
+        final CachedDateSerializer serializer = serializer(PATTERN, "GMT+8");
+        final AtomicInteger wrong = new AtomicInteger();
+        final CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            final long seed = t;
+            pool.execute(new Runnable() {
+                @Override
+                public void run() {
+                    SimpleDateFormat expected = legacy(PATTERN, "GMT+8");
+                    Random random = new Random(seed);
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int i = 0; i < 20000; i++) {
+                        // a few neighbouring seconds, so the threads keep replacing each other's cache entry
+                        long millis = 1506621423000L + random.nextInt(4000);
+                        if (!expected.format(new Date(millis)).equals(serializer.format(millis))) {
+                            wrong.incrementAndGet();
+                        }
+                    }
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        Assert.assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+        Assert.assertEquals(0, wrong.get());
+    }
+
+    @Test
+    public void testLenientInput() throws Exception {
+        SimpleDateFormat legacy = legacy(PATTERN, "GMT+8");
+        // accepted by the lenient SimpleDateFormat: rolled over, unpadded, trailing text ignored
+        String[] lenient = {"2017-9-2 1:2:3", "2017-13-01 00:00:00", "2017-02-30 00:00:00", "2017-09-22 10:11:12xyz",
+                "2017-09-22 25:00:00"};
+        for (String text : lenient) {
+            Event event = JsonMappers.reader(Event.class).readValue("{\"shanghai\":\"" + text + "\"}");
+            Assert.assertEquals(text, legacy.parse(text), event.shanghai);
+            // and back: the normalized text
+            String json = JsonMappers.writer(Event.class).writeValueAsString(event);
+            Assert.assertTrue(json, json.contains("\"shanghai\":\"" + legacy.format(event.shanghai) + "\""));
+        }
+        Event rolled = JsonMappers.reader(Event.class).readValue("{\"shanghai\":\"2017-02-30 00:00:00\"}");
+        Assert.assertEquals("2017-03-02 00:00:00", legacy.format(rolled.shanghai));
+    }
+
+    @Test
+    public void testStrictInputRejected() throws IOException {
+        Event ok = JsonMappers.reader(Event.class).readValue("{\"strict\":\" 2017-09-22 10:11:12 \"}");
+        Assert.assertEquals("2017-09-22 10:11:12", legacy(PATTERN, "GMT+8").format(ok.strict));
+        String[] lenient = {"2017-9-2 1:2:3", "2017-13-01 00:00:00", "2017-02-30 00:00:00", "2017-09-22 10:11:12xyz",
+                "2017-09-22 25:00:00"};
+        for (String text : lenient) {
+            try {
+                JsonMappers.reader(Event.class).readValue("{\"strict\":\"" + text + "\"}");
+                Assert.fail("expected a rejection of " + text);
+            } catch (InvalidFormatException expected) {
+                Assert.assertEquals(text, expected.getValue());
+            }
+        }
+        Event leap = JsonMappers.reader(Event.class).readValue("{\"day\":\"2016-02-29\"}");
+        Assert.assertEquals("2016-02-29", legacy("yyyy-MM-dd", "UTC").format(leap.day));
+    }
+
+    @Test
+    public void testCompatiblePatterns() {
+        Assert.assertTrue(CachedDateSerializer.isCompatiblePattern(PATTERN));
+        Assert.assertTrue(CachedDateSerializer.isCompatiblePattern("EEE, d MMM yyyy HH:mm:ss Z"));
+        Assert.assertTrue(CachedDateSerializer.isCompatiblePattern("yyyy-MM-dd'T'HH:mm:ssXXX"));
+        Assert.assertTrue(CachedDateSerializer.isCompatiblePattern("yyyy 'u S Y'"));
+        Assert.assertFalse(CachedDateSerializer.isCompatiblePattern("uuuu-MM-dd"));
+        Assert.assertFalse(CachedDateSerializer.isCompatiblePattern("HH:mm:ss.SSS"));
+        Assert.assertFalse(CachedDateSerializer.isCompatiblePattern("YYYY-MM-dd"));
+        Assert.assertFalse(CachedDateSerializer.isCompatiblePattern("dd/MM/yy"));
+        Assert.assertFalse(CachedDateSerializer.isCompatiblePattern("HH:mm ZZZZ"));
+    }
+
+    @Test
+    public void testIncompatiblePatternKeepsJackson() throws IOException {
+        // 'u' is the day number of week to SimpleDateFormat, the year to java.time
+        Weekday weekday = new Weekday();
+        weekday.date = new Date(1506621423000L);
+        String json = JsonMappers.writer(Weekday.class).writeValueAsString(weekday);
+        Assert.assertEquals("{\"date\":\"" + legacy("u", "UTC").format(weekday.date) + "\"}", json);
+    }
+
+    public static class Weekday {
+        @JsonFormat(pattern = "u")
+        public Date date;
+    }
+}
@@ -0,0 +1,121 @@
+package com.java.api.jackson;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+public class JsonArrayStreamerTest {
+
+    public static class Item {
+        private long id;
+
+        public long getId() {
+            return id;
+        }
+
+        public void setId(long id) {
+            this.id = id;
+        }
+    }
+
+    private static InputStream json(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<Long> ids(Stream<Item> stream) {
+        final List<Long> ids = new ArrayList<>();
+        stream.forEach(new Consumer<Item>() {
+            @Override
+            public void accept(Item item) {
+                ids.add(item.getId());
+            }
+        });
+        return ids;
+    }
+
+    private static String items(int n) {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < n; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            // a null between the elements every 7th position
+            sb.append(i % 7 == 3 ? "null," : "").append("{\"id\":").append(i).append('}');
+        }
+        return sb.append(']').toString();
+    }
+
+    @Test
+    public void testTopLevelArrayWithNulls() throws IOException {
+        JsonArrayStreamer<Item> streamer = new JsonArrayStreamer<>(null, Item.class);
+        final List<Long> ids = new ArrayList<>();
+        long count = streamer.forEach(json("[{\"id\":1}, null, {\"id\":2}, null]"), new Consumer<Item>() {
+            @Override
+            public void accept(Item item) {
+                ids.add(item.getId());
+            }
+        });
+        Assert.assertEquals(2, count);
+        Assert.assertEquals(Arrays.asList(1L, 2L), ids);
+
+        try (Stream<Item> stream = streamer.stream(json("[null, {\"id\":3}, null, {\"id\":4}]"))) {
+            Assert.assertEquals(Arrays.asList(3L, 4L), ids(stream));
+        }
+        Assert.assertEquals(0, streamer.forEach(json("{\"elements\":[]}"), new Consumer<Item>() {
+            @Override
+            public void accept(Item item) {
+                Assert.fail("not an array document");
+            }
+        }));
+    }
+
+    @Test
+    public void testArrayField() throws IOException {
+        JsonArrayStreamer<Item> streamer = new JsonArrayStreamer<>("elements", Item.class);
+        String doc = "{\"id\":0,\"skipped\":{\"elements\":[{\"id\":-1}]},\"others\":[1,2],"
+                + "\"elements\":[{\"id\":5},null,{\"id\":6}],\"after\":true}";
+        try (Stream<Item> stream = streamer.stream(json(doc))) {
+            Assert.assertEquals(Arrays.asList(5L, 6L), ids(stream));
+        }
+        try (Stream<Item> stream = streamer.stream(json("{\"id\":0}"))) {
+            Assert.assertEquals(0, stream.count());
+        }
+    }
+
+    @Test
+    public void testParallel() throws Exception {
+        final int n = 5000;
+        JsonArrayStreamer<Item> streamer = new JsonArrayStreamer<>("elements", Item.class);
+        final BitSet seen = new BitSet(n);
+        long count = streamer.forEachParallel(json("{\"elements\":" + items(n) + "}"), new Consumer<Item>() {
+            @Override
+            public void accept(Item item) {
+                synchronized (seen) {
+                    Assert.assertFalse(seen.get((int) item.getId()));
+                    seen.set((int) item.getId());
+                }
+            }
+        }, 4);
+        Assert.assertEquals(n, count);
+        Assert.assertEquals(n, seen.cardinality());
+
+        // sequential delivery keeps document order
+        try (Stream<Item> stream = new JsonArrayStreamer<>(null, Item.class).stream(json(items(n)))) {
+            List<Long> ids = ids(stream);
+            Assert.assertEquals(n, ids.size());
+            for (int i = 0; i < n; i++) {
+                Assert.assertEquals(i, ids.get(i).longValue());
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.java.api.jackson;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+
+public class LazyJsonViewTest {
+    /**
+     * escapes and multi-byte utf-8 before the fields, so character and byte offsets differ
+     */
+    private static final String JSON = "{\"name\":\"中文 \\\"quoted\\\" \\u00e9\\\\\","
+            + "\"emoji\":\"😀\","
+            + "\"count\":-12.5e3,"
+            + "\"flag\":true,"
+            + "\"none\":null,"
+            + "\"list\":[1,{\"a\":\"é\"},[\"}\",\"]\"]],"
+            + "\"child\":{\"名字\":\"值\",\"deep\":{\"x\":[ 1 , 2 ]},\"text\":\"a,b}\"},"
+            + "\"last\" : 7 }";
+
+    @Test
+    public void testScalars() throws IOException {
+        LazyJsonView view = new LazyJsonView(JSON);
+        Assert.assertEquals(new HashSet<>(Arrays.asList("name", "emoji", "count", "flag", "none", "list", "child",
+                "last")), view.fieldNames());
+        Assert.assertEquals("中文 \"quoted\" é\\", view.getText("name"));
+        Assert.assertEquals("😀", view.getText("emoji"));
+        Assert.assertEquals(-12500.0, view.get("count").asDouble(), 0);
+        Assert.assertTrue(view.get("flag").asBoolean());
+        Assert.assertTrue(view.has("none"));
+        Assert.assertTrue(view.get("none").isNull());
+        Assert.assertNull(view.getText("none"));
+        Assert.assertEquals(Integer.valueOf(7), view.get("last", Integer.class));
+        // decoded once, then kept
+        Assert.assertSame(view.get("name"), view.get("name"));
+    }
+
+    @Test
+    public void testRawText() throws IOException {
+        LazyJsonView view = new LazyJsonView(JSON.getBytes(StandardCharsets.UTF_8));
+        Assert.assertEquals("\"中文 \\\"quoted\\\" \\u00e9\\\\\"", view.rawText("name"));
+        Assert.assertEquals("\"😀\"", view.rawText("emoji"));
+        Assert.assertEquals("-12.5e3", view.rawText("count"));
+        Assert.assertEquals("null", view.rawText("none"));
+        Assert.assertEquals("[1,{\"a\":\"é\"},[\"}\",\"]\"]]", view.rawText("list"));
+        Assert.assertEquals("7", view.rawText("last"));
+        JsonNode list = view.get("list");
+        Assert.assertEquals("é", list.get(1).get("a").asText());
+        Assert.assertEquals("]", list.get(2).get(1).asText());
+    }
+
+    @Test
+    public void testNested() throws IOException {
+        LazyJsonView view = new LazyJsonView(JSON);
+        LazyJsonView child = view.nested("child");
+        Assert.assertEquals("值", child.getText("名字"));
+        Assert.assertEquals("a,b}", child.getText("text"));
+        Assert.assertEquals("{\"x\":[ 1 , 2 ]}", child.rawText("deep"));
+        LazyJsonView deep = child.nested("deep");
+        Assert.assertEquals("[ 1 , 2 ]", deep.rawText("x"));
+        Assert.assertEquals(2, deep.get("x").get(1).asInt());
+        try {
+            view.nested("list");
+            Assert.fail("list is not an object");
+        } catch (IOException expected) {
+            // json object expected
+        }
+    }
+
+    @Test
+    public void testMissing() throws IOException {
+        LazyJsonView view = new LazyJsonView("{\"a\":1,\"a\":2}");
+        Assert.assertEquals(2, view.get("a").asInt());
+        Assert.assertFalse(view.has("b"));
+        Assert.assertNull(view.get("b"));
+        Assert.assertNull(view.get("b", String.class));
+        Assert.assertNull(view.getText("b"));
+        Assert.assertNull(view.nested("b"));
+        Assert.assertNull(view.rawText("b"));
+        Assert.assertTrue(new LazyJsonView("{}").fieldNames().isEmpty());
+        try {
+            new LazyJsonView("[1]");
+            Assert.fail("not an object");
+        } catch (IOException expected) {
+            // json object expected
+        }
+    }
+
+    @Test
+    public void testManyFields() throws IOException {
+        StringBuilder sb = new StringBuilder("{");
+        for (int i = 0; i < 100; i++) {
+            sb.append(i == 0 ? "" : ",").append("\"f").append(i).append("\":").append(i);
+        }
+        LazyJsonView view = new LazyJsonView(sb.append('}').toString());
+        Assert.assertEquals(100, view.fieldNames().size());
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals(String.valueOf(i), view.rawText("f" + i));
+        }
+    }
+}
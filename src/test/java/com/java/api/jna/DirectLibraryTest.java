@@ -0,0 +1,121 @@
+package com.java.api.jna;
+
+import com.sun.jna.LastErrorException;
+import com.sun.jna.Pointer;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.BitSet;
+
+public class DirectLibraryTest {
+
+    @Test
+    public void testCopyAndFill() {
+        if (!DirectCLibrary.AVAILABLE) {
+            return;
+        }
+        ByteBuffer src = ByteBuffer.allocateDirect(64);
+        for (int i = 0; i < 64; i++) {
+            src.put((byte) i);
+        }
+        src.position(8).limit(40);
+        ByteBuffer dst = ByteBuffer.allocateDirect(64);
+        dst.position(4);
+        DirectCLibrary.copy(src, dst);
+        Assert.assertEquals(40, src.position());
+        Assert.assertEquals(36, dst.position());
+        for (int i = 0; i < 32; i++) {
+            Assert.assertEquals(i + 8, dst.get(4 + i));
+        }
+        dst.clear().position(60);
+        DirectCLibrary.fill(dst, (byte) 7);
+        Assert.assertEquals(60, dst.position());
+        Assert.assertEquals(7, dst.get(63));
+        Assert.assertEquals(31 + 8 - 4, dst.get(31));
+    }
+
+    @Test
+    public void testLinux() throws IOException {
+        if (!LinuxLibrary.AVAILABLE) {
+            return;
+        }
+        Assert.assertEquals(0, Long.bitCount(LinuxLibrary.pageSize()) - 1);
+        int page = (int) LinuxLibrary.pageSize();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(3 * page);
+        buffer.position(100);
+        Assert.assertTrue(LinuxLibrary.madvise(buffer, LinuxLibrary.MADV_SEQUENTIAL));
+        Assert.assertTrue(LinuxLibrary.madvise(buffer, LinuxLibrary.MADV_NORMAL));
+        buffer.limit(page);
+        Assert.assertFalse(LinuxLibrary.madvise(buffer, LinuxLibrary.MADV_NORMAL));
+
+        try {
+            LinuxLibrary.fadvise(-1, 0, 0, LinuxLibrary.POSIX_FADV_SEQUENTIAL);
+            Assert.fail("expected EBADF");
+        } catch (LastErrorException expected) {
+            Assert.assertEquals(9, expected.getErrorCode());
+        }
+        if (LinuxLibrary.isFdAccessible()) {
+            File file = File.createTempFile("fadvise", ".dat");
+            try (FileInputStream in = new FileInputStream(file)) {
+                LinuxLibrary.fadvise(in.getFD(), 0, 0, LinuxLibrary.POSIX_FADV_SEQUENTIAL);
+            } finally {
+                Files.delete(file.toPath());
+            }
+        }
+
+        BitSet cpus = LinuxLibrary.getAffinity();
+        Assert.assertFalse(cpus.isEmpty());
+        // pin a separate thread, the affinity of the test thread stays as is
+        final BitSet[] pinned = new BitSet[1];
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                LinuxLibrary.pinCurrentThread(LinuxLibrary.getAffinity().nextSetBit(0));
+                pinned[0] = LinuxLibrary.getAffinity();
+            }
+        });
+        thread.start();
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        Assert.assertEquals(1, pinned[0].cardinality());
+        Assert.assertEquals(cpus.nextSetBit(0), pinned[0].nextSetBit(0));
+    }
+
+    @Test
+    public void testMadviseUnaligned() {
+        if (!LinuxLibrary.AVAILABLE) {
+            return;
+        }
+        int page = (int) LinuxLibrary.pageSize();
+        ByteBuffer memory = ByteBuffer.allocateDirect(4 * page);
+        for (int i = 0; i < memory.capacity(); i++) {
+            memory.put(i, (byte) 1);
+        }
+        // an unaligned view in the middle: only the pages fully inside it may be dropped
+        int from = page / 2 + 100;
+        int to = memory.capacity() - page / 2 - 100;
+        memory.position(from).limit(to);
+        ByteBuffer view = memory.slice();
+        Assert.assertTrue(LinuxLibrary.madvise(view, LinuxLibrary.MADV_DONTNEED));
+        memory.clear();
+        long address = Pointer.nativeValue(DirectCLibrary.pointer(memory));
+        int zeroed = 0;
+        for (int i = 0; i < memory.capacity(); i++) {
+            if (memory.get(i) == 0) {
+                zeroed++;
+                long pageStart = (address + i) & -page;
+                Assert.assertTrue("zeroed outside of the whole pages of the view: " + i,
+                        pageStart >= address + from && pageStart + page <= address + to);
+            }
+        }
+        Assert.assertTrue(zeroed > 0);
+    }
+}
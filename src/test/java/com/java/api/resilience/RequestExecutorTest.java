@@ -0,0 +1,80 @@
+package com.java.api.resilience;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class RequestExecutorTest {
+    RequestExecutor executor;
+
+    @Before
+    public void before() {
+        ExecutionPolicy policy = new ExecutionPolicy();
+        policy.setHedgeEnabled(true);
+        policy.setMinSamples(10);
+        executor = new RequestExecutor(policy);
+    }
+
+    @Test
+    public void testHedge() throws Exception {
+        for (int i = 0; i < 50; i++) {
+            executor.execute("host", new Callable<Integer>() {
+                @Override
+                public Integer call() throws Exception {
+                    Thread.sleep(2);
+                    return 0;
+                }
+            });
+        }
+        final AtomicInteger attempts = new AtomicInteger();
+        long start = System.currentTimeMillis();
+        executor.execute("host", Deadline.after(1, TimeUnit.SECONDS), new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                if (attempts.getAndIncrement() == 0) {
+                    Thread.sleep(500);
+                }
+                return "attempt-" + attempts.get();
+            }
+        });
+        Assert.assertTrue(System.currentTimeMillis() - start < 500);
+    }
+
+    @Test(expected = TimeoutException.class)
+    public void testDeadline() throws Exception {
+        executor.execute("host", Deadline.after(50, TimeUnit.MILLISECONDS), new Callable<Integer>() {
+            @Override
+            public Integer call() throws Exception {
+                Thread.sleep(1000);
+                return 0;
+            }
+        });
+    }
+
+    @Test
+    public void testTimeoutShrinksLimit() throws Exception {
+        int initial = executor.getLimit("slow");
+        try {
+            executor.execute("slow", Deadline.after(20, TimeUnit.MILLISECONDS), new Callable<Integer>() {
+                @Override
+                public Integer call() throws Exception {
+                    Thread.sleep(1000);
+                    return 0;
+                }
+            });
+            Assert.fail("expected a timeout");
+        } catch (TimeoutException expected) {
+            // the cancelled attempt releases its permit as a drop
+        }
+        long until = System.currentTimeMillis() + 1000;
+        while (executor.getLimit("slow") >= initial && System.currentTimeMillis() < until) {
+            Thread.sleep(5);
+        }
+        Assert.assertTrue(executor.getLimit("slow") < initial);
+    }
+}
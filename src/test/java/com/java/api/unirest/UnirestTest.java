@@ -8,38 +8,36 @@ import org.junit.Test;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
 
 public class UnirestTest {
 
     @Test
-    public void testGet() throws UnirestException {
-        String url;
-        Map<String, String> headers;
-        Map<String, String> rtParams;
-        HttpResponse<JsonNode> response;
-        url = "http://localhost:8088/rest/jpa_entity/{id}";
-        headers = new HashMap<>();
-        headers.put("Content-Type", "application/json");
-        rtParams = new HashMap<>();
+    public void testGet() throws ExecutionException, InterruptedException {
+        String url = "http://localhost:8088/rest/jpa_entity/{id}";
+        Map<String, String> rtParams = new HashMap<>();
         rtParams.put("id", "1");
-        response = UnirestDemo.doGet(url, headers, rtParams, null);
-        System.out.println(String.format("GET. status:%s, body:%s", response.getStatus(), response.getBody()));
+        Map<String, Object> body = UnirestDemo.doGet(url, null, rtParams, null).get();
+        System.out.println(String.format("GET. body:%s", body));
     }
 
     @Test
-    public void testPost() throws IOException, UnirestException {
-        String url;
-        Map<String, String> headers;
-        Map<String, String> rtParams;
-        HttpResponse<JsonNode> response;
-        url = "http://localhost:8088/rest/jpa_entity";
-        headers = new HashMap<>();
-        headers.put("Content-Type", "application/json");
+    public void testGetAsync() throws ExecutionException, InterruptedException {
+        String url = "http://localhost:8088/rest/jpa_entity/{id}";
+        Map<String, String> rtParams = new HashMap<>();
+        rtParams.put("id", "1");
+        Map body = UnirestDemo.client().getAsync(url, null, rtParams, null, Map.class).get();
+        System.out.println(String.format("GET async. body:%s", body));
+    }
+
+    @Test
+    public void testPost() throws ExecutionException, InterruptedException {
+        String url = "http://localhost:8088/rest/jpa_entity";
         Map<String, Object> bdParams = new HashMap<>();
         bdParams.put("fieldA", "urirest-test fA");
         bdParams.put("fieldB", "urirest-test fB");
-        response = UnirestDemo.doPost(url, headers, null, bdParams);
-        System.out.println(String.format("POST. status:%s, body:%s", response.getStatus(), response.getBody()));
+        Map<String, Object> body = UnirestDemo.doPost(url, null, null, bdParams).get();
+        System.out.println(String.format("POST. body:%s", body));
     }
 
     @Test
@@ -0,0 +1,95 @@
+package com.java.api.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class ReloadableConfigTest {
+
+    private static void write(Path file, String content) throws IOException {
+        Files.write(file, content.getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    @Test
+    public void testTypedValues() {
+        Assert.assertEquals(Duration.ofMillis(1500), ConfigSnapshot.parseDuration("1500"));
+        Assert.assertEquals(Duration.ofSeconds(30), ConfigSnapshot.parseDuration("30s"));
+        Assert.assertEquals(Duration.ofMinutes(5), ConfigSnapshot.parseDuration("PT5M"));
+        Assert.assertEquals(Duration.ofHours(2), ConfigSnapshot.parseDuration("2h"));
+
+        Properties properties = new Properties();
+        properties.setProperty("forever", Long.MAX_VALUE + "d");
+        Assert.assertEquals(Duration.ZERO, new ConfigSnapshot(properties).getDuration("forever", Duration.ZERO));
+    }
+
+    @Test
+    public void testReload() throws IOException {
+        Path file = Files.createTempFile("config", ".properties");
+        try (ReloadableConfig config = new ReloadableConfig(file)) {
+            write(file, "pool.size = 8\nfeature.on=yes\ntimeout=250ms\nbad=x\n");
+            Assert.assertTrue(config.reload());
+            Assert.assertEquals(8, config.getInt("pool.size", 1));
+            Assert.assertTrue(config.getBoolean("feature.on", false));
+            Assert.assertEquals(Duration.ofMillis(250), config.getDuration("timeout", Duration.ZERO));
+            Assert.assertEquals(7, config.getInt("bad", 7));
+            Assert.assertEquals(3L, config.getLong("missing", 3L));
+
+            final AtomicReference<ConfigSnapshot> previous = new AtomicReference<>();
+            config.addListener(new ConfigListener() {
+                @Override
+                public void onReload(ConfigSnapshot before, ConfigSnapshot current) {
+                    previous.set(before);
+                }
+            });
+            ConfigSnapshot first = config.snapshot();
+            write(file, "pool.size=16\n");
+            Assert.assertTrue(config.reload());
+            Assert.assertSame(first, previous.get());
+            Assert.assertEquals(16, config.getInt("pool.size", 1));
+            Assert.assertEquals(8, first.getInt("pool.size", 1));
+
+            // a broken file keeps the previous snapshot
+            write(file, "bad=\\u00zz\n");
+            ConfigSnapshot current = config.snapshot();
+            Assert.assertFalse(config.reload());
+            Assert.assertSame(current, config.snapshot());
+            // truncated, not yet rewritten
+            write(file, "");
+            Assert.assertFalse(config.reload());
+            Assert.assertSame(current, config.snapshot());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testWatch() throws Exception {
+        Path file = Files.createTempFile("config", ".properties");
+        try (ReloadableConfig config = new ReloadableConfig(file)) {
+            final CountDownLatch reloaded = new CountDownLatch(1);
+            config.addListener(new ConfigListener() {
+                @Override
+                public void onReload(ConfigSnapshot previous, ConfigSnapshot current) {
+                    if (current.getInt("n", 0) == 2) {
+                        reloaded.countDown();
+                    }
+                }
+            });
+            Assert.assertTrue(config.startWatching());
+            write(file, "n=2\n");
+            Assert.assertTrue(reloaded.await(30, TimeUnit.SECONDS));
+            Assert.assertEquals(2, config.getInt("n", 0));
+        } finally {
+            Files.delete(file);
+        }
+    }
+}